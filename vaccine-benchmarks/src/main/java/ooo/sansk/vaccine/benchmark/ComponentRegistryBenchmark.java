@@ -0,0 +1,120 @@
+package ooo.sansk.vaccine.benchmark;
+
+import ooo.sansk.vaccine.model.ComponentDependency;
+import ooo.sansk.vaccine.model.ComponentRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the indexed {@link ComponentRegistry} lookups with the linear list scans it replaced.
+ * <p>
+ * Every lookup targets the last registered component, which is the worst case for a linear scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentRegistryBenchmark {
+    private static final String PACKAGE = "ooo.sansk.vaccine.benchmark.registry";
+    private static final int SERVICE_INTERFACES = 16;
+
+    @Param({"10", "1000", "3000"})
+    private int components;
+
+    private List<ComponentDependency> dependencies;
+    private List<Object> instances;
+    private ComponentRegistry registry;
+    private Class<?> lookupType;
+    private Class<?> providedType;
+    private Class<?> serviceType;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var sources = new LinkedHashMap<String, String>();
+        for (int i = 0; i < SERVICE_INTERFACES; i++) {
+            sources.put(PACKAGE + ".Service" + i, "package %s; public interface Service%d {}".formatted(PACKAGE, i));
+        }
+        for (int i = 0; i < components; i++) {
+            sources.put(PACKAGE + ".Component" + i, "package %s; public class Component%d implements Service%d {}".formatted(PACKAGE, i, i % SERVICE_INTERFACES));
+            sources.put(PACKAGE + ".Provided" + i, "package %s; public class Provided%d {}".formatted(PACKAGE, i));
+        }
+        final var classes = SyntheticClasses.compile(sources);
+
+        dependencies = new ArrayList<>(components);
+        instances = new ArrayList<>(components);
+        for (int i = 0; i < components; i++) {
+            final var componentType = classes.load(PACKAGE + ".Component" + i);
+            dependencies.add(new ComponentDependency(componentType, new Class[0], new Class[]{classes.load(PACKAGE + ".Provided" + i)}));
+            instances.add(classes.instantiate(componentType.getName()));
+        }
+
+        registry = new ComponentRegistry(dependencies);
+        instances.forEach(registry::register);
+        lookupType = instances.get(components - 1).getClass();
+        providedType = classes.load(PACKAGE + ".Provided" + (components - 1));
+        serviceType = lookupType.getInterfaces()[0];
+    }
+
+    @Benchmark
+    public Object indexedInstanceLookup() {
+        return registry.getInstance(lookupType).orElse(null);
+    }
+
+    @Benchmark
+    public Object linearInstanceLookup() {
+        for (final var instance : instances) {
+            if (instance.getClass().equals(lookupType)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object indexedAssignableLookup() {
+        return registry.getImplementation(serviceType).flatMap(implementation -> registry.getInstance(implementation.getType())).orElse(null);
+    }
+
+    @Benchmark
+    public Object linearAssignableLookup() {
+        for (final var instance : instances) {
+            if (serviceType.isInstance(instance)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object indexedProviderLookup() {
+        return registry.getProvider(providedType).orElse(null);
+    }
+
+    @Benchmark
+    public Object linearProviderLookup() {
+        for (final var dependency : dependencies) {
+            if (Arrays.asList(dependency.getProvidedClasses()).contains(providedType)) {
+                return dependency;
+            }
+        }
+        return null;
+    }
+}
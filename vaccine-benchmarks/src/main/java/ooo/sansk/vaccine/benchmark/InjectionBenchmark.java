@@ -0,0 +1,73 @@
+package ooo.sansk.vaccine.benchmark;
+
+import ooo.sansk.vaccine.Vaccine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Vaccine#inject} end to end: scanning, metadata extraction and wiring of a synthetic graph.
+ * <p>
+ * The class loader is shared between invocations, so apart from the first invocation classes are already loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionBenchmark {
+    private static final Properties PROPERTIES = new Properties();
+
+    @Param({"WIDE", "DEEP", "DIAMOND", "PROVIDER_HEAVY"})
+    private SyntheticGraph.Shape shape;
+
+    @Param({"10", "1000", "10000"})
+    private int components;
+
+    private SyntheticClasses classes;
+    private String packageName;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        classes = SyntheticGraph.compile(shape, components);
+        packageName = SyntheticGraph.getPackage(shape, components);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Vaccine inject() {
+        final var vaccine = new Vaccine();
+        vaccine.inject(PROPERTIES, packageName, classes.getClassLoader());
+        return vaccine;
+    }
+
+    @Benchmark
+    public Vaccine injectInParallel() {
+        final var vaccine = new Vaccine();
+        vaccine.setExecutor(executor);
+        vaccine.inject(PROPERTIES, packageName, classes.getClassLoader());
+        return vaccine;
+    }
+}
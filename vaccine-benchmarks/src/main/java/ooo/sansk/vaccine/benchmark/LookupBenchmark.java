@@ -0,0 +1,61 @@
+package ooo.sansk.vaccine.benchmark;
+
+import ooo.sansk.vaccine.Vaccine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Vaccine#getInjected} on an injected graph. Lookups should not get slower as the graph grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int components;
+
+    private Vaccine vaccine;
+    private Class<?> firstComponent;
+    private Class<?> lastComponent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var classes = SyntheticGraph.compile(SyntheticGraph.Shape.WIDE, components);
+        vaccine = new Vaccine();
+        vaccine.inject(new Properties(), SyntheticGraph.getPackage(SyntheticGraph.Shape.WIDE, components), classes.getClassLoader());
+        firstComponent = classes.load(SyntheticGraph.getComponentName(SyntheticGraph.Shape.WIDE, components, 0));
+        lastComponent = classes.load(SyntheticGraph.getComponentName(SyntheticGraph.Shape.WIDE, components, components - 1));
+    }
+
+    @Benchmark
+    public Optional<Object> getFirstInjected() {
+        return vaccine.getInjected(firstComponent);
+    }
+
+    @Benchmark
+    public Optional<Object> getLastInjected() {
+        return vaccine.getInjected(lastComponent);
+    }
+
+    @Benchmark
+    public Optional<Object> getMissing() {
+        return vaccine.getInjected(LookupBenchmark.class);
+    }
+}
@@ -0,0 +1,75 @@
+package ooo.sansk.vaccine.benchmark;
+
+import ooo.sansk.vaccine.PackageScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PackageScanner#getClassesForPackage} on a cold class loader, so every scanned class is loaded and
+ * initialized as part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int components;
+
+    private SyntheticClasses classes;
+    private String packageName;
+    private ExecutorService executor;
+    private URLClassLoader classLoader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        classes = SyntheticGraph.compile(SyntheticGraph.Shape.WIDE, components);
+        packageName = SyntheticGraph.getPackage(SyntheticGraph.Shape.WIDE, components);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Setup(Level.Invocation)
+    public void createClassLoader() {
+        classLoader = classes.newClassLoader();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Class<?>> getClassesForPackage() throws ClassNotFoundException {
+        return PackageScanner.getClassesForPackage(classLoader, packageName);
+    }
+
+    @Benchmark
+    public List<Class<?>> getClassesForPackageInParallel() throws ClassNotFoundException {
+        return PackageScanner.getClassesForPackage(classLoader, packageName, executor);
+    }
+}
@@ -0,0 +1,119 @@
+package ooo.sansk.vaccine.benchmark;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles generated sources into a temporary directory and exposes them through a fresh class loader, so
+ * benchmarks can work with thousands of distinct classes without checking them in.
+ */
+public final class SyntheticClasses {
+    private final Path outputDirectory;
+    private final URLClassLoader classLoader;
+
+    private SyntheticClasses(Path outputDirectory, URLClassLoader classLoader) {
+        this.outputDirectory = outputDirectory;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param sources the source code to compile, keyed by fully qualified class name
+     * @return the compiled classes, loadable through {@link #getClassLoader()}
+     */
+    public static SyntheticClasses compile(Map<String, String> sources) {
+        try {
+            return compile(sources, Files.createTempDirectory("vaccine-classes"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param sources         the source code to compile, keyed by fully qualified class name
+     * @param outputDirectory the directory to write the class files to
+     * @return the compiled classes, loadable through {@link #getClassLoader()}
+     */
+    public static SyntheticClasses compile(Map<String, String> sources, Path outputDirectory) {
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Synthetic classes can only be compiled when running on a JDK");
+        }
+        try {
+            final var sourceDirectory = Files.createTempDirectory("vaccine-sources");
+            Files.createDirectories(outputDirectory);
+            final var arguments = new ArrayList<String>(List.of(
+                    "-d", outputDirectory.toString(),
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-proc:none",
+                    "-nowarn"
+            ));
+            for (final var source : sources.entrySet()) {
+                final var file = sourceDirectory.resolve(source.getKey().replace('.', '/') + ".java");
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, source.getValue());
+                arguments.add(file.toString());
+            }
+            if (compiler.run(null, null, System.err, arguments.toArray(new String[0])) != 0) {
+                throw new IllegalStateException("Could not compile synthetic classes in " + sourceDirectory);
+            }
+            return open(outputDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param outputDirectory a directory classes were compiled to earlier
+     */
+    public static SyntheticClasses open(Path outputDirectory) {
+        return new SyntheticClasses(outputDirectory, createClassLoader(outputDirectory));
+    }
+
+    /**
+     * @return a class loader that has not loaded any of the classes yet
+     */
+    public URLClassLoader newClassLoader() {
+        return createClassLoader(outputDirectory);
+    }
+
+    private static URLClassLoader createClassLoader(Path outputDirectory) {
+        try {
+            return new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, SyntheticClasses.class.getClassLoader());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Class<?> load(String className) {
+        try {
+            return Class.forName(className, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Object instantiate(String className) {
+        try {
+            return load(className).getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+}
@@ -0,0 +1,131 @@
+package ooo.sansk.vaccine.benchmark;
+
+import ooo.sansk.vaccine.Vaccine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+
+/**
+ * Generates {@code @Component} graphs of a given shape and size. Every component is named {@code Component<i>} and
+ * only depends on components with a lower index, so the graphs are always acyclic.
+ * <p>
+ * Compiling thousands of classes takes a while, so compiled graphs are kept in the temporary directory and reused by
+ * later forks. The directory is named after a hash of the generated sources, the vaccine version and the Java version,
+ * so a changed generator or library never reuses classes compiled by an earlier one.
+ */
+public final class SyntheticGraph {
+    public enum Shape {
+        /**
+         * Every component depends on {@code Component0}: maximal fan-in, depth two.
+         */
+        WIDE,
+        /**
+         * Every component depends on its predecessor: a single chain as deep as the graph is large.
+         */
+        DEEP,
+        /**
+         * Every component depends on two components of the previous level of a binary tree, so nearly every
+         * component is reached along two paths. Logarithmic depth.
+         */
+        DIAMOND,
+        /**
+         * Even components provide a product through a {@code @Provided} method, odd components depend on the product
+         * of their predecessor.
+         */
+        PROVIDER_HEAVY
+    }
+
+    private SyntheticGraph() {
+    }
+
+    public static String getPackage(Shape shape, int size) {
+        return "ooo.sansk.vaccine.benchmark.graph.%s%d".formatted(shape.name().toLowerCase(Locale.ROOT).replace("_", ""), size);
+    }
+
+    public static String getComponentName(Shape shape, int size, int index) {
+        return getPackage(shape, size) + ".Component" + index;
+    }
+
+    public static SyntheticClasses compile(Shape shape, int size) {
+        final var sources = generate(shape, size);
+        final var outputDirectory = Path.of(System.getProperty("java.io.tmpdir"), "vaccine-benchmarks", getPackage(shape, size) + "-" + hash(sources));
+        final var marker = outputDirectory.resolve("complete");
+        if (Files.exists(marker)) {
+            return SyntheticClasses.open(outputDirectory);
+        }
+        final var classes = SyntheticClasses.compile(sources, outputDirectory);
+        try {
+            Files.createFile(marker);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return classes;
+    }
+
+    public static Map<String, String> generate(Shape shape, int size) {
+        final var packageName = getPackage(shape, size);
+        final var sources = new LinkedHashMap<String, String>();
+        for (int i = 0; i < size; i++) {
+            final var body = switch (shape) {
+                case WIDE -> i == 0 ? constructor(i) : constructor(i, "Component0");
+                case DEEP -> i == 0 ? constructor(i) : constructor(i, "Component" + (i - 1));
+                case DIAMOND -> i < 2 ? constructor(i) : constructor(i, "Component" + (i / 2), "Component" + (i / 2 - 1));
+                case PROVIDER_HEAVY -> i % 2 == 0
+                        ? constructor(i) + " @ooo.sansk.vaccine.annotation.Provided public Product%d product() { return new Product%d(); }".formatted(i, i)
+                        : constructor(i, "Product" + (i - 1));
+            };
+            sources.put(packageName + ".Component" + i, "package %s; @ooo.sansk.vaccine.annotation.Component public class Component%d { %s }".formatted(packageName, i, body));
+            if (shape == Shape.PROVIDER_HEAVY && i % 2 == 0) {
+                sources.put(packageName + ".Product" + i, "package %s; public class Product%d {}".formatted(packageName, i));
+            }
+        }
+        return sources;
+    }
+
+    private static String hash(Map<String, String> sources) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((getLibraryVersion() + "\n" + Runtime.version().feature() + "\n").getBytes(StandardCharsets.UTF_8));
+        sources.forEach((className, source) -> digest.update((className + "\n" + source + "\n").getBytes(StandardCharsets.UTF_8)));
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    /**
+     * @return the version of the vaccine artifact on the classpath, or {@code unknown} when it is not run from a jar
+     */
+    private static String getLibraryVersion() {
+        try (final var input = Vaccine.class.getResourceAsStream("/META-INF/maven/ooo.sansk.vaccine/vaccine/pom.properties")) {
+            if (input == null) {
+                return "unknown";
+            }
+            final var properties = new Properties();
+            properties.load(input);
+            return properties.getProperty("version", "unknown");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String constructor(int index, String... parameterTypes) {
+        final var parameters = new StringJoiner(", ");
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameters.add(parameterTypes[i] + " dependency" + i);
+        }
+        return "public Component%d(%s) {}".formatted(index, parameters);
+    }
+}
@@ -0,0 +1,226 @@
+package ooo.sansk.vaccine.processor;
+
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Property;
+import ooo.sansk.vaccine.annotation.Provided;
+import ooo.sansk.vaccine.index.ComponentIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Finds all {@link Component} classes at compile time and generates a {@link ComponentIndex} for them, so
+ * {@link ooo.sansk.vaccine.Vaccine} does not have to scan the classpath at startup.
+ * <p>
+ * The generated index is placed in the deepest package shared by all components, unless the
+ * {@value #PACKAGE_OPTION} option names a package. Its name is derived from the names of the components, so modules
+ * that share a package do not generate the same class. The usage rules of {@link Component}, {@link Provided},
+ * {@link AfterCreate} and {@link Property} are checked as well, so violations fail the build instead of the
+ * injection.
+ */
+@SupportedOptions(ComponentIndexProcessor.PACKAGE_OPTION)
+public class ComponentIndexProcessor extends AbstractProcessor {
+    static final String PACKAGE_OPTION = "vaccine.index.package";
+    static final String INDEX_CLASS_NAME = "VaccineComponentIndex";
+    static final String SERVICE_FILE = "META-INF/services/" + ComponentIndex.class.getName();
+
+    private final List<String> generatedIndices = new ArrayList<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(
+                Component.class.getCanonicalName(),
+                Provided.class.getCanonicalName(),
+                AfterCreate.class.getCanonicalName(),
+                Property.class.getCanonicalName()
+        );
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+
+        final var components = new ArrayList<TypeElement>();
+        for (final var type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(Component.class))) {
+            if (isValidComponent(type)) {
+                components.add(type);
+            }
+        }
+        for (final var method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(Provided.class))) {
+            validateProvidedMethod(method);
+        }
+        for (final var method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(AfterCreate.class))) {
+            validateAfterCreateMethod(method);
+        }
+        for (final var parameter : roundEnv.getElementsAnnotatedWith(Property.class)) {
+            validatePropertyParameter(parameter);
+        }
+
+        if (!components.isEmpty()) {
+            writeIndex(components);
+        }
+        return false;
+    }
+
+    private boolean isValidComponent(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            error(type, "@Component can only be used on classes and records");
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "@Component can not be used on abstract classes");
+            return false;
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            error(type, "@Component can not be used on inner classes, make the class static");
+            return false;
+        }
+        final var publicConstructors = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .filter(constructor -> constructor.getModifiers().contains(Modifier.PUBLIC))
+                .count();
+        if (publicConstructors != 1) {
+            error(type, "Components need exactly one public constructor, found " + publicConstructors);
+            return false;
+        }
+        return true;
+    }
+
+    private void validateProvidedMethod(ExecutableElement method) {
+        if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+            error(method, "Methods annotated with @Provided need to be public");
+        }
+        for (final var parameter : method.getParameters()) {
+            if (parameter.getAnnotation(Property.class) == null) {
+                error(parameter, "Parameters of @Provided methods need to be @Property parameters");
+            }
+        }
+        if (method.getReturnType().getKind() == TypeKind.VOID) {
+            error(method, "Methods annotated with @Provided need to return the provided component");
+        }
+    }
+
+    private void validateAfterCreateMethod(ExecutableElement method) {
+        if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+            error(method, "Methods annotated with @AfterCreate need to be public");
+        }
+        if (!method.getParameters().isEmpty()) {
+            error(method, "Methods annotated with @AfterCreate can not have parameters");
+        }
+    }
+
+    private void validatePropertyParameter(Element parameter) {
+        final var enclosingElement = parameter.getEnclosingElement();
+        if (enclosingElement.getKind() != ElementKind.CONSTRUCTOR && enclosingElement.getAnnotation(Provided.class) == null) {
+            error(parameter, "@Property can only be used on constructor parameters and parameters of @Provided methods");
+        }
+    }
+
+    private void writeIndex(List<TypeElement> components) {
+        final var elements = processingEnv.getElementUtils();
+        final var packageName = processingEnv.getOptions().getOrDefault(PACKAGE_OPTION, findCommonPackage(components));
+        final var simpleName = INDEX_CLASS_NAME + "_" + hash(components);
+        final var qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        final var source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import java.util.List;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(simpleName).append(" implements ").append(ComponentIndex.class.getName()).append(" {\n")
+                .append("    private static final List<String> COMPONENT_CLASS_NAMES = List.of(\n");
+        for (int i = 0; i < components.size(); i++) {
+            source.append("            \"").append(elements.getBinaryName(components.get(i))).append('"')
+                    .append(i < components.size() - 1 ? ",\n" : "\n");
+        }
+        source.append("    );\n\n")
+                .append("    @Override\n")
+                .append("    public List<String> getComponentClassNames() {\n")
+                .append("        return COMPONENT_CLASS_NAMES;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try (final var writer = processingEnv.getFiler().createSourceFile(qualifiedName, components.toArray(new Element[0])).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write component index " + qualifiedName, e);
+        }
+        generatedIndices.add(qualifiedName);
+    }
+
+    private String hash(List<TypeElement> components) {
+        final var elements = processingEnv.getElementUtils();
+        final var digest = new CRC32();
+        components.stream()
+                .map(component -> elements.getBinaryName(component).toString())
+                .sorted()
+                .forEach(name -> digest.update((name + '\n').getBytes(StandardCharsets.UTF_8)));
+        return String.format("%08x", digest.getValue());
+    }
+
+    private void writeServiceFile() {
+        if (generatedIndices.isEmpty()) {
+            return;
+        }
+        try (final var writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE).openWriter()) {
+            for (final var index : generatedIndices) {
+                writer.write(index);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + SERVICE_FILE, e);
+        }
+    }
+
+    private String findCommonPackage(List<TypeElement> components) {
+        final var elements = processingEnv.getElementUtils();
+        String commonPackage = null;
+        for (final var component : components) {
+            final var packageName = elements.getPackageOf(component).getQualifiedName().toString();
+            if (commonPackage == null) {
+                commonPackage = packageName;
+                continue;
+            }
+            while (!packageName.equals(commonPackage) && !packageName.startsWith(commonPackage + ".")) {
+                final var separator = commonPackage.lastIndexOf('.');
+                commonPackage = separator < 0 ? "" : commonPackage.substring(0, separator);
+                if (commonPackage.isEmpty()) {
+                    return commonPackage;
+                }
+            }
+        }
+        return commonPackage;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,168 @@
+package ooo.sansk.vaccine.processor;
+
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.index.ComponentIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentIndexProcessorTest {
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    void testIndexIsGeneratedAndLoadable() throws Exception {
+        final var diagnostics = compile(
+                source("com.example.app.Service", """
+                        package com.example.app;
+
+                        import com.example.app.storage.Repository;
+                        import ooo.sansk.vaccine.annotation.Component;
+                        import ooo.sansk.vaccine.annotation.Property;
+
+                        @Component
+                        public class Service {
+                            public Service(Repository repository, @Property("name") String name) {
+                            }
+
+                            @Component
+                            public static class Nested {
+                            }
+                        }
+                        """),
+                source("com.example.app.storage.Repository", """
+                        package com.example.app.storage;
+
+                        import ooo.sansk.vaccine.annotation.AfterCreate;
+                        import ooo.sansk.vaccine.annotation.Component;
+
+                        @Component
+                        public record Repository() {
+                            @AfterCreate
+                            public void open() {
+                            }
+                        }
+                        """)
+        );
+
+        assertTrue(diagnostics.getDiagnostics().stream().noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR), diagnostics.getDiagnostics().toString());
+        assertTrue(Files.readString(outputDirectory.resolve(ComponentIndexProcessor.SERVICE_FILE)).matches("com\\.example\\.app\\.VaccineComponentIndex_[0-9a-f]{8}\n"));
+
+        try (final var classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, getClass().getClassLoader())) {
+            final var indices = ServiceLoader.load(ComponentIndex.class, classLoader).stream().map(ServiceLoader.Provider::get).toList();
+
+            assertEquals(1, indices.size());
+            assertEquals(
+                    List.of("com.example.app.Service", "com.example.app.Service$Nested", "com.example.app.storage.Repository"),
+                    indices.get(0).getComponentClassNames().stream().sorted().toList()
+            );
+        }
+    }
+
+    @Test
+    void testInvalidComponentsFailCompilation() {
+        final var diagnostics = compile(source("com.example.invalid.Invalid", """
+                package com.example.invalid;
+
+                import ooo.sansk.vaccine.annotation.Component;
+                import ooo.sansk.vaccine.annotation.Provided;
+
+                @Component
+                public class Invalid {
+                    public Invalid() {
+                    }
+
+                    public Invalid(String name) {
+                    }
+
+                    @Provided
+                    public String name(int length) {
+                        return "";
+                    }
+                }
+                """));
+
+        final var errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .toList();
+        assertEquals(List.of(
+                "Components need exactly one public constructor, found 2",
+                "Parameters of @Provided methods need to be @Property parameters"
+        ), errors);
+        assertFalse(Files.exists(outputDirectory.resolve(ComponentIndexProcessor.SERVICE_FILE)));
+    }
+
+    @Test
+    void testModulesSharingAPackageGenerateDifferentIndices() throws Exception {
+        final var first = outputDirectory.resolve("first");
+        final var second = outputDirectory.resolve("second");
+        compile(first, source("com.example.shared.First", """
+                package com.example.shared;
+
+                @ooo.sansk.vaccine.annotation.Component
+                public class First {
+                }
+                """));
+        compile(second, source("com.example.shared.Second", """
+                package com.example.shared;
+
+                @ooo.sansk.vaccine.annotation.Component
+                public class Second {
+                }
+                """));
+
+        final var firstIndex = Files.readString(first.resolve(ComponentIndexProcessor.SERVICE_FILE));
+        final var secondIndex = Files.readString(second.resolve(ComponentIndexProcessor.SERVICE_FILE));
+        assertTrue(firstIndex.startsWith("com.example.shared." + ComponentIndexProcessor.INDEX_CLASS_NAME));
+        assertNotEquals(firstIndex, secondIndex);
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(JavaFileObject... sources) {
+        return compile(outputDirectory, sources);
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(Path outputDirectory, JavaFileObject... sources) {
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        final var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try {
+            Files.createDirectories(outputDirectory);
+            final var vaccineClasses = Path.of(Component.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            final var task = compiler.getTask(null, null, diagnostics, List.of(
+                    "-d", outputDirectory.toString(),
+                    "-classpath", vaccineClasses.toString()
+            ), null, List.of(sources));
+            task.setProcessors(List.of(new ComponentIndexProcessor()));
+            task.call();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return diagnostics;
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
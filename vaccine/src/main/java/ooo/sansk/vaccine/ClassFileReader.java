@@ -0,0 +1,154 @@
+package ooo.sansk.vaccine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal class file parser that answers whether a class carries a runtime visible annotation, without loading the
+ * class.
+ * <p>
+ * Only the constant pool is decoded. If the annotation descriptor does not occur in it the class can not be annotated,
+ * otherwise the fields and methods are skipped and the class level {@code RuntimeVisibleAnnotations} attribute is
+ * inspected.
+ */
+final class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private ClassFileReader() {
+    }
+
+    /**
+     * @param classFile  the contents of a class file
+     * @param descriptor the field descriptor of the annotation type, for example {@code Lcom/example/Marker;}
+     * @return whether the class itself is annotated with the annotation
+     * @throws IllegalArgumentException if the class file is malformed
+     */
+    static boolean isAnnotatedWith(ByteBuffer classFile, String descriptor) {
+        try {
+            return readAnnotations(classFile, descriptor.getBytes(StandardCharsets.UTF_8));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed class file", e);
+        }
+    }
+
+    static String getDescriptor(Class<?> annotationType) {
+        return "L" + annotationType.getName().replace('.', '/') + ";";
+    }
+
+    private static boolean readAnnotations(ByteBuffer buffer, byte[] descriptor) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+        buffer.getShort(); // minor version
+        buffer.getShort(); // major version
+
+        final var constantPoolCount = buffer.getShort() & 0xFFFF;
+        var descriptorIndex = -1;
+        var attributeNameIndex = -1;
+        for (int i = 1; i < constantPoolCount; i++) {
+            final var tag = buffer.get();
+            switch (tag) {
+                case 1 -> {
+                    final var length = buffer.getShort() & 0xFFFF;
+                    if (equalsUtf8(buffer, length, descriptor)) {
+                        descriptorIndex = i;
+                    } else if (length == RUNTIME_VISIBLE_ANNOTATIONS.length() && equalsUtf8(buffer, length, RUNTIME_VISIBLE_ANNOTATIONS.getBytes(StandardCharsets.US_ASCII))) {
+                        attributeNameIndex = i;
+                    }
+                    buffer.position(buffer.position() + length);
+                }
+                case 7, 8, 16, 19, 20 -> buffer.position(buffer.position() + 2);
+                case 15 -> buffer.position(buffer.position() + 3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> buffer.position(buffer.position() + 4);
+                case 5, 6 -> {
+                    buffer.position(buffer.position() + 8);
+                    i++;
+                }
+                default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+            }
+        }
+        if (descriptorIndex < 0 || attributeNameIndex < 0) {
+            return false;
+        }
+
+        buffer.position(buffer.position() + 6); // access flags, this class, super class
+        final var interfaceCount = buffer.getShort() & 0xFFFF;
+        buffer.position(buffer.position() + interfaceCount * 2);
+        skipMembers(buffer); // fields
+        skipMembers(buffer); // methods
+
+        final var attributeCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < attributeCount; i++) {
+            final var nameIndex = buffer.getShort() & 0xFFFF;
+            final var length = buffer.getInt();
+            if (nameIndex != attributeNameIndex) {
+                buffer.position(buffer.position() + length);
+                continue;
+            }
+            final var annotationCount = buffer.getShort() & 0xFFFF;
+            for (int j = 0; j < annotationCount; j++) {
+                if ((buffer.getShort() & 0xFFFF) == descriptorIndex) {
+                    return true;
+                }
+                skipElementValuePairs(buffer);
+            }
+            return false;
+        }
+        return false;
+    }
+
+    private static boolean equalsUtf8(ByteBuffer buffer, int length, byte[] expected) {
+        if (length != expected.length) {
+            return false;
+        }
+        final var offset = buffer.position();
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void skipMembers(ByteBuffer buffer) {
+        final var memberCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < memberCount; i++) {
+            buffer.position(buffer.position() + 6); // access flags, name, descriptor
+            final var attributeCount = buffer.getShort() & 0xFFFF;
+            for (int j = 0; j < attributeCount; j++) {
+                buffer.getShort(); // attribute name
+                final var length = buffer.getInt();
+                buffer.position(buffer.position() + length);
+            }
+        }
+    }
+
+    private static void skipElementValuePairs(ByteBuffer buffer) {
+        final var pairCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < pairCount; i++) {
+            buffer.getShort(); // element name
+            skipElementValue(buffer);
+        }
+    }
+
+    private static void skipElementValue(ByteBuffer buffer) {
+        final var tag = (char) buffer.get();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> buffer.getShort();
+            case 'e' -> buffer.getInt();
+            case '@' -> {
+                buffer.getShort();
+                skipElementValuePairs(buffer);
+            }
+            case '[' -> {
+                final var valueCount = buffer.getShort() & 0xFFFF;
+                for (int i = 0; i < valueCount; i++) {
+                    skipElementValue(buffer);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown element value tag " + tag);
+        }
+    }
+}
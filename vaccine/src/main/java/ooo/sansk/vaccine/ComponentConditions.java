@@ -0,0 +1,194 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.annotation.ConditionalOnClass;
+import ooo.sansk.vaccine.annotation.ConditionalOnMissingComponent;
+import ooo.sansk.vaccine.annotation.ConditionalOnProperty;
+import ooo.sansk.vaccine.model.ComponentDependency;
+import ooo.sansk.vaccine.model.ComponentRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Decides which scanned components are active, before any of them is created.
+ * <p>
+ * Components are first checked against their {@link ConditionalOnProperty} and {@link ConditionalOnClass}
+ * conditions. Then every component that needs an inactive component, and can not be satisfied by an active one
+ * instead, is deactivated as well, until only components remain that can be created. Only then are the
+ * {@link ConditionalOnMissingComponent} conditions checked, so a default fills in for an alternative that was
+ * deactivated. Accepting defaults can make other components satisfiable again, so both steps are repeated until no
+ * more defaults are accepted. Dependencies that never existed are left alone, so they are still reported as unknown.
+ */
+final class ComponentConditions {
+    private static final Logger logger = LoggerFactory.getLogger(ComponentConditions.class);
+
+    private final Function<String, String> properties;
+    private final Function<List<ComponentDependency>, ComponentRegistry> registryFactory;
+
+    /**
+     * @param properties      looks up the value of a property, or {@code null} if it is not set
+     * @param registryFactory creates a registry of the given components, including the components of a parent
+     */
+    ComponentConditions(Function<String, String> properties, Function<List<ComponentDependency>, ComponentRegistry> registryFactory) {
+        this.properties = properties;
+        this.registryFactory = registryFactory;
+    }
+
+    /**
+     * @return the active components, in the given order
+     */
+    List<ComponentDependency> filter(List<ComponentDependency> dependencies) {
+        final var candidates = new ArrayList<ComponentDependency>(dependencies.size());
+        final var defaults = new ArrayList<ComponentDependency>();
+        for (final var dependency : dependencies) {
+            final var type = dependency.getType();
+            if (!matchesProperty(type) || !matchesClasses(type)) {
+                continue;
+            }
+            (type.isAnnotationPresent(ConditionalOnMissingComponent.class) ? defaults : candidates).add(dependency);
+        }
+        if (candidates.size() == dependencies.size()) {
+            return candidates;
+        }
+
+        final var all = registryFactory.apply(dependencies);
+        final var candidateSet = new HashSet<>(candidates);
+        // Only ever grows, so the loop ends after at most one round per default
+        final var acceptedDefaults = new HashSet<ComponentDependency>();
+        while (true) {
+            final var active = removeUnsatisfiable(inScanOrder(dependencies, candidateSet, acceptedDefaults), all);
+            if (defaults.isEmpty()) {
+                return active;
+            }
+            final var registry = registryFactory.apply(active.stream().filter(candidateSet::contains).toList());
+            final var accepted = new ArrayList<ComponentDependency>();
+            for (final var dependency : defaults) {
+                if (acceptedDefaults.contains(dependency) || matchesMissingComponents(dependency.getType(), registry, accepted)) {
+                    accepted.add(dependency);
+                }
+            }
+            if (accepted.size() == acceptedDefaults.size()) {
+                return active;
+            }
+            acceptedDefaults.addAll(accepted);
+        }
+    }
+
+    private static List<ComponentDependency> inScanOrder(List<ComponentDependency> dependencies, Set<ComponentDependency> candidates, Set<ComponentDependency> acceptedDefaults) {
+        final var selected = new ArrayList<ComponentDependency>(candidates.size() + acceptedDefaults.size());
+        for (final var dependency : dependencies) {
+            if (candidates.contains(dependency) || acceptedDefaults.contains(dependency)) {
+                selected.add(dependency);
+            }
+        }
+        return selected;
+    }
+
+    private boolean matchesProperty(Class<?> type) {
+        final var condition = type.getAnnotation(ConditionalOnProperty.class);
+        if (condition == null) {
+            return true;
+        }
+        final var value = properties.apply(condition.value());
+        final boolean matches;
+        if (value == null) {
+            matches = condition.matchIfMissing();
+        } else if (condition.havingValue().isEmpty()) {
+            matches = !value.trim().equalsIgnoreCase("false");
+        } else {
+            matches = value.trim().equalsIgnoreCase(condition.havingValue());
+        }
+        if (!matches) {
+            logger.debug("Skipping {}, property {} is {}", type.getName(), condition.value(), value);
+        }
+        return matches;
+    }
+
+    private static boolean matchesClasses(Class<?> type) {
+        final var condition = type.getAnnotation(ConditionalOnClass.class);
+        if (condition == null) {
+            return true;
+        }
+        for (final var className : condition.value()) {
+            try {
+                Class.forName(className, false, type.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                logger.debug("Skipping {}, class {} is missing", type.getName(), className);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesMissingComponents(Class<?> type, ComponentRegistry registry, List<ComponentDependency> acceptedDefaults) {
+        for (final var missingType : type.getAnnotation(ConditionalOnMissingComponent.class).value()) {
+            var present = !registry.getImplementations(missingType).isEmpty() || !registry.getProvisions(missingType).isEmpty();
+            for (final var accepted : acceptedDefaults) {
+                present |= isPresent(missingType, accepted);
+            }
+            if (present) {
+                logger.debug("Skipping {}, a component of type {} is present", type.getName(), missingType.getName());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPresent(Class<?> type, ComponentDependency dependency) {
+        if (type.isAssignableFrom(dependency.getType())) {
+            return true;
+        }
+        for (final var providedClass : dependency.getProvidedClasses()) {
+            if (type.isAssignableFrom(providedClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ComponentDependency> removeUnsatisfiable(List<ComponentDependency> active, ComponentRegistry all) {
+        if (active.size() == all.getDependencies().size()) {
+            return active;
+        }
+        var remaining = active;
+        while (true) {
+            final var registry = registryFactory.apply(remaining);
+            final var satisfiable = new ArrayList<ComponentDependency>(remaining.size());
+            for (final var dependency : remaining) {
+                if (needsInactiveComponent(dependency, registry, all)) {
+                    logger.debug("Skipping {}, it depends on an inactive component", dependency.getType().getName());
+                } else {
+                    satisfiable.add(dependency);
+                }
+            }
+            if (satisfiable.size() == remaining.size()) {
+                return remaining;
+            }
+            remaining = satisfiable;
+        }
+    }
+
+    private static boolean needsInactiveComponent(ComponentDependency dependency, ComponentRegistry active, ComponentRegistry all) {
+        final var types = dependency.getDependencies();
+        for (int i = 0; i < types.length; i++) {
+            if (!dependency.isMultiple(i) && !canResolve(active, types[i], dependency.getQualifier(i)) && canResolve(all, types[i], dependency.getQualifier(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean canResolve(ComponentRegistry registry, Class<?> type, String qualifier) {
+        if (qualifier != null) {
+            return registry.getNamedImplementation(type, qualifier).isPresent();
+        }
+        return registry.getDependency(type).isPresent()
+                || registry.getProvider(type).isPresent()
+                || registry.getImplementation(type).isPresent();
+    }
+}
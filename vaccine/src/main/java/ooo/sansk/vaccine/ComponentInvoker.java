@@ -0,0 +1,336 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.BeforeDestroy;
+import ooo.sansk.vaccine.annotation.Named;
+import ooo.sansk.vaccine.annotation.OnPropertyChange;
+import ooo.sansk.vaccine.annotation.Property;
+import ooo.sansk.vaccine.annotation.Provided;
+import ooo.sansk.vaccine.exception.ConstructorStalemateException;
+import ooo.sansk.vaccine.exception.DependencyInstantiationException;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precompiled invokers for the constructor, {@link Provided} methods, lifecycle methods and {@link OnPropertyChange}
+ * methods of a component class.
+ * <p>
+ * The reflective metadata of a class is read once and turned into {@link MethodHandle}s with a fixed generic
+ * signature, so creating instances and calling lifecycle methods no longer goes through {@link
+ * Constructor#newInstance} or {@link Method#invoke}. Invokers are cached per class for the lifetime of that class.
+ */
+final class ComponentInvoker {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType LIFECYCLE_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType PROPERTY_CHANGE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ComponentInvoker> INVOKERS = new ClassValue<>() {
+        @Override
+        protected ComponentInvoker computeValue(Class<?> type) {
+            return new ComponentInvoker(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Class<?>[] parameterTypes;
+    private final Type[] genericParameterTypes;
+    private final Property[] properties;
+    private final String[] qualifiers;
+    private final Class<?>[] elementTypes;
+    private final MethodHandle constructorHandle;
+    private final Map<Class<?>, ProviderMethod> providers;
+    private final List<LifecycleMethod> afterCreateMethods;
+    private final List<LifecycleMethod> beforeDestroyMethods;
+    private final Map<String, List<PropertyChangeMethod>> propertyChangeMethods;
+
+    private ComponentInvoker(Class<?> type) {
+        this.type = type;
+        final var constructor = findConstructor(type);
+        this.parameterTypes = constructor.getParameterTypes();
+        this.genericParameterTypes = constructor.getGenericParameterTypes();
+        this.properties = new Property[parameterTypes.length];
+        this.qualifiers = new String[parameterTypes.length];
+        this.elementTypes = new Class<?>[parameterTypes.length];
+        final var parameters = constructor.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            properties[i] = parameters[i].getAnnotation(Property.class);
+            final var named = parameters[i].getAnnotation(Named.class);
+            qualifiers[i] = named == null ? null : named.value();
+            elementTypes[i] = properties[i] == null ? findElementType(getGenericParameterType(i)) : null;
+        }
+        this.constructorHandle = unreflectConstructor(constructor);
+        this.providers = findProviders(type);
+        this.afterCreateMethods = findLifecycleMethods(type, AfterCreate.class);
+        this.beforeDestroyMethods = findLifecycleMethods(type, BeforeDestroy.class);
+        this.propertyChangeMethods = findPropertyChangeMethods(type);
+    }
+
+    /**
+     * @throws ConstructorStalemateException if the class has more than one public constructor
+     */
+    static ComponentInvoker of(Class<?> type) {
+        return INVOKERS.get(type);
+    }
+
+    int getParameterCount() {
+        return parameterTypes.length;
+    }
+
+    Class<?> getParameterType(int index) {
+        return parameterTypes[index];
+    }
+
+    /**
+     * @return the key of the {@link Property} annotation on the constructor parameter, or {@code null} if the
+     * parameter is a dependency
+     */
+    String getPropertyKey(int index) {
+        return properties[index] == null ? null : properties[index].value();
+    }
+
+    /**
+     * @return the {@link Property} annotation on the constructor parameter, or {@code null} if the parameter is a
+     * dependency
+     */
+    Property getProperty(int index) {
+        return properties[index];
+    }
+
+    /**
+     * @return the parameter type including its type arguments, for example {@code List<Integer>}
+     */
+    Type getGenericParameterType(int index) {
+        // Inner class constructors do not report their implicit outer instance parameter as a generic type
+        if (genericParameterTypes.length != parameterTypes.length) {
+            return parameterTypes[index];
+        }
+        return genericParameterTypes[index];
+    }
+
+    /**
+     * @return the value of the {@link Named} annotation on the constructor parameter, or {@code null} if it has none
+     */
+    String getQualifier(int index) {
+        return qualifiers[index];
+    }
+
+    /**
+     * @return the element type of a {@code List<T>}, {@code Set<T>} or {@code Map<String, T>} dependency, or
+     * {@code null} if the parameter is a single dependency or a property
+     */
+    Class<?> getElementType(int index) {
+        return elementTypes[index];
+    }
+
+    Set<Class<?>> getProvidedTypes() {
+        return providers.keySet();
+    }
+
+    List<LifecycleMethod> getAfterCreateMethods() {
+        return afterCreateMethods;
+    }
+
+    List<LifecycleMethod> getBeforeDestroyMethods() {
+        return beforeDestroyMethods;
+    }
+
+    /**
+     * @return the {@link OnPropertyChange} methods subscribed to the given property key
+     */
+    List<PropertyChangeMethod> getPropertyChangeMethods(String key) {
+        return propertyChangeMethods.getOrDefault(key, List.of());
+    }
+
+    /**
+     * @return the provider method returning exactly the given type, or {@code null} if this class has none
+     */
+    ProviderMethod getProvider(Class<?> providedType) {
+        return providers.get(providedType);
+    }
+
+    Object newInstance(Object[] arguments) {
+        try {
+            return (Object) constructorHandle.invokeExact(arguments);
+        } catch (Throwable e) {
+            throw new DependencyInstantiationException("Could not create Instance for " + type.getName(), e);
+        }
+    }
+
+    private static Class<?> findElementType(Type parameterType) {
+        if (!(parameterType instanceof ParameterizedType parameterizedType)) {
+            return null;
+        }
+        final var rawType = parameterizedType.getRawType();
+        final var typeArguments = parameterizedType.getActualTypeArguments();
+        if (rawType == List.class || rawType == Set.class) {
+            return toClass(typeArguments[0]);
+        }
+        if (rawType == Map.class && toClass(typeArguments[0]) == String.class) {
+            return toClass(typeArguments[1]);
+        }
+        return null;
+    }
+
+    private static Class<?> toClass(Type type) {
+        if (type instanceof Class<?> rawType) {
+            return rawType;
+        }
+        if (type instanceof ParameterizedType parameterizedType) {
+            return toClass(parameterizedType.getRawType());
+        }
+        if (type instanceof WildcardType wildcardType) {
+            return toClass(wildcardType.getUpperBounds()[0]);
+        }
+        return null;
+    }
+
+    private static Constructor<?> findConstructor(Class<?> type) {
+        final var constructors = type.getConstructors();
+        if (constructors.length > 1) {
+            throw new ConstructorStalemateException(type);
+        }
+        if (constructors.length == 0) {
+            throw new DependencyInstantiationException("Component could not be created. Class " + type.getName() + " has no public constructor", null);
+        }
+        return constructors[0];
+    }
+
+    private static MethodHandle unreflectConstructor(Constructor<?> constructor) {
+        try {
+            makeAccessible(constructor);
+            return LOOKUP.unreflectConstructor(constructor)
+                    .asType(MethodType.genericMethodType(constructor.getParameterCount()))
+                    .asSpreader(Object[].class, constructor.getParameterCount());
+        } catch (IllegalAccessException e) {
+            throw new DependencyInstantiationException("Could not access constructor of " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    private static Map<Class<?>, ProviderMethod> findProviders(Class<?> type) {
+        final var providers = new LinkedHashMap<Class<?>, ProviderMethod>();
+        for (final var method : type.getMethods()) {
+            final var provided = method.getAnnotation(Provided.class);
+            if (provided == null || providers.containsKey(method.getReturnType())) {
+                continue;
+            }
+            final var parameters = method.getParameters();
+            final var properties = new Property[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                properties[i] = parameters[i].getAnnotation(Property.class);
+                if (properties[i] == null) {
+                    throw new IllegalArgumentException("Parameters of @Provided methods need to be @Property parameters");
+                }
+            }
+            if (provided.caching() == Provided.Caching.BOUNDED && provided.cacheSize() < 1) {
+                throw new IllegalArgumentException("The cache size of @Provided method " + method.getName() + " needs to be positive");
+            }
+            final var handle = unreflect(method)
+                    .asType(MethodType.genericMethodType(parameters.length + 1))
+                    .asSpreader(Object[].class, parameters.length);
+            providers.put(method.getReturnType(), new ProviderMethod(type, method.getReturnType(), handle, List.of(properties), List.of(method.getGenericParameterTypes()), provided.caching(), provided.cacheSize()));
+        }
+        return providers;
+    }
+
+    private static List<LifecycleMethod> findLifecycleMethods(Class<?> type, Class<? extends Annotation> annotationType) {
+        final var methods = new ArrayList<LifecycleMethod>();
+        for (final var method : type.getMethods()) {
+            if (!method.isAnnotationPresent(annotationType)) {
+                continue;
+            }
+            if (method.getParameterCount() != 0) {
+                throw new IllegalArgumentException("Methods annotated with @" + annotationType.getSimpleName() + " can not have parameters");
+            }
+            final var afterCreate = method.getAnnotation(AfterCreate.class);
+            final var async = afterCreate != null && afterCreate.async();
+            methods.add(new LifecycleMethod(method.getName(), unreflect(method).asType(LIFECYCLE_TYPE), async));
+        }
+        return List.copyOf(methods);
+    }
+
+    private static Map<String, List<PropertyChangeMethod>> findPropertyChangeMethods(Class<?> type) {
+        final var methods = new LinkedHashMap<String, List<PropertyChangeMethod>>();
+        for (final var method : type.getMethods()) {
+            final var annotation = method.getAnnotation(OnPropertyChange.class);
+            if (annotation == null) {
+                continue;
+            }
+            if (method.getParameterCount() > 1) {
+                throw new IllegalArgumentException("Methods annotated with @OnPropertyChange can have at most one parameter");
+            }
+            final var handle = unreflect(method);
+            final var propertyChangeMethod = method.getParameterCount() == 0
+                    ? new PropertyChangeMethod(method.getName(), null, MethodHandles.dropArguments(handle.asType(MethodType.methodType(void.class, Object.class)), 1, Object.class))
+                    : new PropertyChangeMethod(method.getName(), method.getGenericParameterTypes()[0], handle.asType(PROPERTY_CHANGE_TYPE));
+            for (final var key : annotation.value()) {
+                methods.computeIfAbsent(key, k -> new ArrayList<>(1)).add(propertyChangeMethod);
+            }
+        }
+        methods.replaceAll((key, list) -> List.copyOf(list));
+        return methods;
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            makeAccessible(method);
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new DependencyInstantiationException("Could not access method " + method, e);
+        }
+    }
+
+    private static void makeAccessible(AccessibleObject member) {
+        // Public members of non-public classes can only be invoked once access checks are suppressed. If the module
+        // does not allow that, unreflecting falls back to the regular access checks.
+        member.trySetAccessible();
+    }
+
+    /**
+     * @param properties     the {@link Property} annotation of every parameter
+     * @param parameterTypes the generic type of every parameter
+     */
+    record ProviderMethod(Class<?> providerType, Class<?> providedType, MethodHandle handle, List<Property> properties, List<Type> parameterTypes, Provided.Caching caching, int cacheSize) {
+        Object invoke(Object instance, Object[] arguments) {
+            try {
+                return (Object) handle.invokeExact(instance, arguments);
+            } catch (Throwable e) {
+                throw new DependencyInstantiationException("Could not provide " + providedType.getName() + " from " + providerType.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * @param async whether the method should run in the background, see {@link AfterCreate#async()}
+     */
+    record LifecycleMethod(String name, MethodHandle handle, boolean async) {
+        /**
+         * @return the value returned by the method, or {@code null} if it returns {@code void}
+         */
+        Object invoke(Object instance) throws Throwable {
+            return (Object) handle.invokeExact(instance);
+        }
+    }
+
+    /**
+     * @param parameterType the type of the single parameter, or {@code null} if the method has no parameters
+     */
+    record PropertyChangeMethod(String name, Type parameterType, MethodHandle handle) {
+        void invoke(Object instance, Object argument) throws Throwable {
+            handle.invokeExact(instance, argument);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.exception.PackageLoadFailedException;
+import ooo.sansk.vaccine.index.ComponentIndex;
+import ooo.sansk.vaccine.model.ComponentDependency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Finds the components of a base package and extracts their {@link ComponentDependency} metadata. A {@link
+ * ComponentIndex} is preferred over scanning the root it was compiled into, roots without an index are scanned, and
+ * scanning results are reused from a {@link ScanCache} when a cache directory is configured.
+ * <p>
+ * Package roots are scanned concurrently when an executor is configured, and the classes of each root are inspected
+ * in chunks. The results are always merged in class loader and class name order.
+ */
+final class ComponentScanner {
+    private static final Logger logger = LoggerFactory.getLogger(ComponentScanner.class);
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = Map.of(
+            "boolean", boolean.class,
+            "byte", byte.class,
+            "char", char.class,
+            "short", short.class,
+            "int", int.class,
+            "long", long.class,
+            "float", float.class,
+            "double", double.class
+    );
+
+    private final ClassLoader classLoader;
+    private final boolean componentIndexEnabled;
+    private final boolean bytecodeScanningEnabled;
+    private final Path scanCacheDirectory;
+    private final Executor executor;
+
+    /**
+     * @param executor the executor package roots and chunks of their classes are scanned on, or {@code null} to scan
+     *                 on the calling thread
+     */
+    ComponentScanner(ClassLoader classLoader, boolean componentIndexEnabled, boolean bytecodeScanningEnabled, Path scanCacheDirectory, Executor executor) {
+        this.classLoader = classLoader;
+        this.componentIndexEnabled = componentIndexEnabled;
+        this.bytecodeScanningEnabled = bytecodeScanningEnabled;
+        this.scanCacheDirectory = scanCacheDirectory;
+        this.executor = executor == null ? Runnable::run : executor;
+    }
+
+    List<ComponentDependency> scan(String basePackage) {
+        final var indexedClasses = componentIndexEnabled ? loadIndexedComponentClasses(basePackage) : new LinkedHashMap<Path, List<Class<?>>>();
+        final List<URL> roots;
+        try {
+            roots = PackageScanner.getPackageRoots(classLoader, basePackage);
+        } catch (IOException e) {
+            throw new PackageLoadFailedException("IOException was thrown when trying to get all resources for " + basePackage, e);
+        }
+
+        final var cache = scanCacheDirectory == null ? null : ScanCache.load(scanCacheDirectory, basePackage);
+        final var scannedRoots = new ArrayList<CompletableFuture<List<ComponentDependency>>>(roots.size());
+        for (final var root : roots) {
+            final var indexLocation = findIndexLocation(indexedClasses.keySet(), root);
+            if (indexLocation == null) {
+                scannedRoots.add(scanRoot(root, basePackage, cache));
+            } else {
+                scannedRoots.add(CompletableFuture.completedFuture(getInjectionDetails(indexedClasses.remove(indexLocation))));
+            }
+        }
+
+        // Joined in class loader order, so the result does not depend on which root finished first
+        final var dependencies = new ArrayList<ComponentDependency>();
+        try {
+            for (final var scannedRoot : scannedRoots) {
+                dependencies.addAll(scannedRoot.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PackageLoadFailedException("Could not load packages", e.getCause());
+        }
+        if (cache != null) {
+            cache.save();
+        }
+
+        // Indices that are not part of any root of the package, their components are only added if no root had them
+        final var foundTypes = new HashSet<Class<?>>();
+        for (final var dependency : dependencies) {
+            foundTypes.add(dependency.getType());
+        }
+        for (final var classes : indexedClasses.values()) {
+            for (final var clazz : classes) {
+                if (foundTypes.add(clazz)) {
+                    dependencies.add(getInjectionDetails(clazz));
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    static ComponentDependency getInjectionDetails(Class<?> clazz) {
+        final var invoker = ComponentInvoker.of(clazz);
+        var count = 0;
+        for (int i = 0; i < invoker.getParameterCount(); i++) {
+            if (invoker.getPropertyKey(i) == null) {
+                count++;
+            }
+        }
+        // Sized exactly up front, the arrays are kept by the metadata as they are
+        final var foundDependencies = new Class<?>[count];
+        final var qualifiers = new String[count];
+        final var multiple = new boolean[count];
+        var index = 0;
+        for (int i = 0; i < invoker.getParameterCount(); i++) {
+            if (invoker.getPropertyKey(i) == null) {
+                final var elementType = invoker.getElementType(i);
+                foundDependencies[index] = elementType == null ? invoker.getParameterType(i) : elementType;
+                qualifiers[index] = invoker.getQualifier(i);
+                multiple[index++] = elementType != null;
+            }
+        }
+        return new ComponentDependency(clazz, foundDependencies, qualifiers, multiple, invoker.getProvidedTypes().toArray(new Class[0]));
+    }
+
+    private CompletableFuture<List<ComponentDependency>> scanRoot(URL root, String basePackage, ScanCache cache) {
+        if (cache == null) {
+            return findComponents(root, basePackage);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ScanCache.fingerprint(root);
+            } catch (IOException e) {
+                throw new PackageLoadFailedException("Could not fingerprint " + root, e);
+            }
+        }, executor).thenCompose(fingerprint -> {
+            if (fingerprint.isEmpty()) {
+                return findComponents(root, basePackage);
+            }
+
+            final var cachedComponents = cache.get(root, fingerprint.get());
+            if (cachedComponents.isPresent()) {
+                try {
+                    return CompletableFuture.completedFuture(loadCachedComponents(cachedComponents.get()));
+                } catch (ClassNotFoundException e) {
+                    logger.debug("Cached components of {} could not be loaded, scanning it again", root, e);
+                }
+            }
+
+            return findComponents(root, basePackage).thenApply(components -> {
+                cache.put(root, fingerprint.get(), components);
+                return components;
+            });
+        });
+    }
+
+    /**
+     * Lists the classes of the root and inspects them in chunks on the executor. The root is opened once for all
+     * chunks, and closed when the last one is done.
+     */
+    private CompletableFuture<List<ComponentDependency>> findComponents(URL root, String basePackage) {
+        final PackageRoot packageRoot;
+        try {
+            packageRoot = PackageRoot.open(root, basePackage);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PackageLoadFailedException("IOException was thrown when trying to open " + root, e));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return packageRoot.getClassNames();
+            } catch (IOException e) {
+                throw new PackageLoadFailedException("IOException was thrown when trying to list " + root, e);
+            }
+        }, executor).thenCompose(classNames -> PackageScanner.processInChunks(classNames, chunk -> {
+            try {
+                return findComponents(packageRoot, chunk);
+            } catch (IOException e) {
+                throw new PackageLoadFailedException("IOException was thrown when trying to read classes of " + root, e);
+            } catch (ClassNotFoundException e) {
+                throw new PackageLoadFailedException("Could not load packages", e);
+            }
+        }, executor)).whenComplete((components, failure) -> {
+            try {
+                packageRoot.close();
+            } catch (IOException e) {
+                logger.debug("Could not close {}", root, e);
+            }
+        });
+    }
+
+    private List<ComponentDependency> findComponents(PackageRoot root, List<String> classNames) throws IOException, ClassNotFoundException {
+        final var components = new ArrayList<Class<?>>();
+        for (final var clazz : loadCandidateClasses(root, classNames)) {
+            if (clazz.isAnnotationPresent(Component.class)) {
+                components.add(clazz);
+            }
+        }
+        return getInjectionDetails(components);
+    }
+
+    private List<Class<?>> loadCandidateClasses(PackageRoot root, List<String> classNames) throws IOException, ClassNotFoundException {
+        if (!bytecodeScanningEnabled) {
+            // Not initialized, inactive components are skipped before any of them is created
+            return PackageScanner.loadClasses(classLoader, classNames, false);
+        }
+        final var annotatedClassNames = PackageScanner.getAnnotatedClassNames(root, classNames, Component.class);
+        final var classes = new ArrayList<Class<?>>(annotatedClassNames.size());
+        for (final var className : annotatedClassNames) {
+            classes.add(Class.forName(className, false, classLoader));
+        }
+        return classes;
+    }
+
+    private List<ComponentDependency> loadCachedComponents(List<ScanCache.ComponentEntry> entries) throws ClassNotFoundException {
+        final var components = new ArrayList<ComponentDependency>(entries.size());
+        for (final var entry : entries) {
+            final var multiple = new boolean[entry.multiple().size()];
+            for (int i = 0; i < multiple.length; i++) {
+                multiple[i] = entry.multiple().get(i);
+            }
+            components.add(new ComponentDependency(loadClass(entry.className()), loadClasses(entry.dependencies()), entry.qualifiers().toArray(new String[0]), multiple, loadClasses(entry.providedClasses())));
+        }
+        return components;
+    }
+
+    private Class<?>[] loadClasses(List<String> classNames) throws ClassNotFoundException {
+        final var classes = new Class<?>[classNames.size()];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = loadClass(classNames.get(i));
+        }
+        return classes;
+    }
+
+    private Class<?> loadClass(String className) throws ClassNotFoundException {
+        final var primitiveType = PRIMITIVE_TYPES.get(className);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+        return Class.forName(className, false, classLoader);
+    }
+
+    /**
+     * @return the indexed components of the package, by the jar or directory the index was loaded from. Indices of
+     * which the location is unknown are collected under {@code null}, locations without components in the package
+     * are left out and scanned as usual.
+     */
+    private Map<Path, List<Class<?>>> loadIndexedComponentClasses(String basePackage) {
+        final var packagePrefix = basePackage + ".";
+        final var classesByLocation = new LinkedHashMap<Path, List<Class<?>>>();
+        try {
+            for (final var index : ServiceLoader.load(ComponentIndex.class, classLoader)) {
+                final var classes = classesByLocation.computeIfAbsent(getLocation(index.getClass()), location -> new ArrayList<>());
+                for (final var className : index.getComponentClassNames()) {
+                    if (className.startsWith(packagePrefix)) {
+                        classes.add(Class.forName(className, false, classLoader));
+                    }
+                }
+            }
+        } catch (ClassNotFoundException | ServiceConfigurationError e) {
+            throw new PackageLoadFailedException("Could not load indexed components", e);
+        }
+        classesByLocation.values().removeIf(List::isEmpty);
+        return classesByLocation;
+    }
+
+    private static Path getLocation(Class<?> indexClass) {
+        final var codeSource = indexClass.getProtectionDomain().getCodeSource();
+        return codeSource == null || codeSource.getLocation() == null ? null : PackageRoot.getLocalFile(codeSource.getLocation());
+    }
+
+    /**
+     * @return the location of the index that covers the root, or {@code null} if the root has to be scanned
+     */
+    private static Path findIndexLocation(Set<Path> indexLocations, URL root) {
+        final var rootFile = PackageRoot.getLocalFile(root);
+        if (rootFile == null) {
+            return null;
+        }
+        for (final var location : indexLocations) {
+            // A directory root is the package directory inside the directory the index was loaded from
+            if (location != null && rootFile.startsWith(location)) {
+                return location;
+            }
+        }
+        return null;
+    }
+
+    private static List<ComponentDependency> getInjectionDetails(List<Class<?>> classes) {
+        final var dependencies = new ArrayList<ComponentDependency>(classes.size());
+        for (final var clazz : classes) {
+            dependencies.add(getInjectionDetails(clazz));
+        }
+        return dependencies;
+    }
+}
@@ -0,0 +1,214 @@
+package ooo.sansk.vaccine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import ooo.sansk.vaccine.listener.ComponentCreation;
+import ooo.sansk.vaccine.listener.InjectionListener;
+import ooo.sansk.vaccine.listener.InjectionPhase;
+import ooo.sansk.vaccine.model.ComponentGraph;
+import ooo.sansk.vaccine.model.ComponentRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Measures the injection pipeline, notifies the {@link InjectionListener}s and emits the matching JFR events.
+ * <p>
+ * Measuring is skipped entirely when there are no listeners and the JFR events are disabled.
+ */
+final class InjectionRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(InjectionRecorder.class);
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = getAllocationBean();
+
+    private final List<InjectionListener> listeners;
+
+    InjectionRecorder(List<InjectionListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    Measurement startPhase() {
+        return start(new PhaseEvent());
+    }
+
+    Measurement startComponent() {
+        return start(new ComponentCreationEvent());
+    }
+
+    Measurement startProvider() {
+        return start(new ProviderInvocationEvent());
+    }
+
+    Measurement startAfterCreate() {
+        return start(new AfterCreateEvent());
+    }
+
+    void phaseCompleted(InjectionPhase phase, Measurement measurement) {
+        if (measurement == null) {
+            return;
+        }
+        final var duration = measurement.stop();
+        if (measurement.event instanceof PhaseEvent event && event.shouldCommit()) {
+            event.phase = phase.name();
+            event.commit();
+        }
+        notifyListeners(listener -> listener.onPhaseCompleted(phase, duration));
+    }
+
+    void componentCreated(Class<?> type, int depth, Measurement measurement) {
+        if (measurement == null) {
+            return;
+        }
+        final var duration = measurement.stop();
+        final var allocatedBytes = measurement.getAllocatedBytes();
+        if (measurement.event instanceof ComponentCreationEvent event && event.shouldCommit()) {
+            event.componentClass = type;
+            event.depth = depth;
+            event.allocatedBytes = allocatedBytes;
+            event.commit();
+        }
+        final var creation = new ComponentCreation(type, duration, allocatedBytes, depth);
+        notifyListeners(listener -> listener.onComponentCreated(creation));
+    }
+
+    void providerInvoked(Class<?> providerType, Class<?> providedType, Measurement measurement) {
+        if (measurement == null) {
+            return;
+        }
+        final var duration = measurement.stop();
+        if (measurement.event instanceof ProviderInvocationEvent event && event.shouldCommit()) {
+            event.providerClass = providerType;
+            event.providedClass = providedType;
+            event.commit();
+        }
+        notifyListeners(listener -> listener.onProviderInvoked(providerType, providedType, duration));
+    }
+
+    void afterCreateCompleted(Class<?> type, String methodName, Measurement measurement) {
+        if (measurement == null) {
+            return;
+        }
+        final var duration = measurement.stop();
+        if (measurement.event instanceof AfterCreateEvent event && event.shouldCommit()) {
+            event.componentClass = type;
+            event.method = methodName;
+            event.commit();
+        }
+        notifyListeners(listener -> listener.onAfterCreateCompleted(type, methodName, duration));
+    }
+
+    void injectionCompleted(ComponentRegistry registry) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        final var graph = ComponentGraph.of(registry);
+        notifyListeners(listener -> listener.onInjectionCompleted(graph));
+    }
+
+    private Measurement start(Event event) {
+        if (listeners.isEmpty() && !event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return new Measurement(event, System.nanoTime(), getCurrentThreadAllocatedBytes());
+    }
+
+    private void notifyListeners(Consumer<InjectionListener> notification) {
+        for (final var listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                logger.warn("Injection listener {} failed", listener.getClass().getName(), e);
+            }
+        }
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        return ALLOCATION_BEAN == null ? -1 : ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        } catch (LinkageError e) {
+            // The jdk.management module is not available
+        }
+        return null;
+    }
+
+    static final class Measurement {
+        private final Event event;
+        private final long startNanos;
+        private final long startAllocatedBytes;
+        private long allocatedBytes = -1;
+
+        private Measurement(Event event, long startNanos, long startAllocatedBytes) {
+            this.event = event;
+            this.startNanos = startNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+
+        private Duration stop() {
+            final var duration = Duration.ofNanos(System.nanoTime() - startNanos);
+            if (startAllocatedBytes >= 0) {
+                allocatedBytes = getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+            }
+            event.end();
+            return duration;
+        }
+
+        private long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    @Name("ooo.sansk.vaccine.InjectionPhase")
+    @Label("Injection Phase")
+    @Category("Vaccine")
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("ooo.sansk.vaccine.ComponentCreation")
+    @Label("Component Creation")
+    @Description("Invocation of a component constructor, excluding the creation of its dependencies")
+    @Category("Vaccine")
+    static final class ComponentCreationEvent extends Event {
+        @Label("Component")
+        Class<?> componentClass;
+        @Label("Depth")
+        int depth;
+        @Label("Allocated Bytes")
+        long allocatedBytes;
+    }
+
+    @Name("ooo.sansk.vaccine.ProviderInvocation")
+    @Label("Provider Invocation")
+    @Category("Vaccine")
+    static final class ProviderInvocationEvent extends Event {
+        @Label("Provider")
+        Class<?> providerClass;
+        @Label("Provided Type")
+        Class<?> providedClass;
+    }
+
+    @Name("ooo.sansk.vaccine.AfterCreate")
+    @Label("After Create")
+    @Category("Vaccine")
+    static final class AfterCreateEvent extends Event {
+        @Label("Component")
+        Class<?> componentClass;
+        @Label("Method")
+        String method;
+    }
+}
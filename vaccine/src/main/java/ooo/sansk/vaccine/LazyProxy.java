@@ -0,0 +1,62 @@
+package ooo.sansk.vaccine;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+/**
+ * Stands in for a lazy component behind one of its interfaces, and only creates the component on the first method
+ * call. {@code equals} and {@code hashCode} use the identity of the proxy, so they never trigger creation.
+ */
+final class LazyProxy implements InvocationHandler {
+    private final Supplier<Object> factory;
+    private volatile Object target;
+
+    private LazyProxy(Supplier<Object> factory) {
+        this.factory = factory;
+    }
+
+    static Object create(Class<?> type, Supplier<Object> factory) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new LazyProxy(factory));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+        }
+
+        if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            method.trySetAccessible();
+        }
+        try {
+            return method.invoke(getTarget(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object getTarget() {
+        var instance = target;
+        if (instance == null) {
+            synchronized (this) {
+                instance = target;
+                if (instance == null) {
+                    instance = factory.get();
+                    target = instance;
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,262 @@
+package ooo.sansk.vaccine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * The classes a single root contributes to a package, read through NIO file systems: directories through the default
+ * file system, jars through a zip file system opened on the jar itself, and the modules of a runtime image through the
+ * {@code jrt} file system. Only the directory of the package is walked, so a package matches exactly and the other
+ * entries of a jar or image are never looked at.
+ * <p>
+ * Multi-release jars are read as the running JVM sees them: classes under {@code META-INF/versions/<n>} are listed for
+ * every version up to the runtime version, and a class is read from the highest version that contains it.
+ * <p>
+ * A root opens its zip file systems once and reads all classes through them, it has to be closed afterwards. Reads
+ * may happen concurrently.
+ */
+final class PackageRoot implements Closeable {
+    private static final String CLASS_FILE_SUFFIX = ".class";
+    private static final String MODULE_INFO = "module-info" + CLASS_FILE_SUFFIX;
+    private static final String JAR_SEPARATOR = "!/";
+    private static final String VERSIONS_DIRECTORY = "META-INF/versions";
+    // Mapping costs a system call and a page fault, which only pays off for large class files
+    private static final long MAPPING_THRESHOLD = 64 * 1024;
+
+    private final String packageName;
+    private final String packagePath;
+    private final List<FileSystem> openedFileSystems;
+    private final Path base;
+    // Version directories of a multi-release jar that apply to this runtime, highest version first
+    private final List<Path> versions;
+
+    private PackageRoot(String packageName, List<FileSystem> openedFileSystems, Path base, List<Path> versions) {
+        this.packageName = packageName;
+        this.packagePath = packageName.replace('.', '/');
+        this.openedFileSystems = openedFileSystems;
+        this.base = base;
+        this.versions = versions;
+    }
+
+    /**
+     * @param root        a {@code file:}, {@code jar:} or {@code jrt:} URL of the package directory
+     * @param packageName the package the root was found for
+     * @throws IOException if the root could not be opened
+     */
+    static PackageRoot open(URL root, String packageName) throws IOException {
+        return switch (root.getProtocol()) {
+            case "jar" -> openJar(root, packageName);
+            case "jrt" -> new PackageRoot(packageName, List.of(), getRuntimeImage().getPath("/modules", getModuleName(root)), List.of());
+            default -> {
+                final var directory = getLocalPath(root);
+                if (directory == null) {
+                    yield new PackageRoot(packageName, List.of(), null, List.of());
+                }
+                // The root is the package directory itself, the classes are resolved from the directory it is in
+                final var depth = packageName.isEmpty() ? 0 : packageName.split("\\.").length;
+                var base = directory;
+                for (int i = 0; i < depth; i++) {
+                    base = base.getParent();
+                }
+                yield new PackageRoot(packageName, List.of(), base, List.of());
+            }
+        };
+    }
+
+    /**
+     * @return the jar file or directory the root is read from, or {@code null} if it is not a local file
+     */
+    static Path getLocalFile(URL root) {
+        if ("jar".equals(root.getProtocol())) {
+            final var spec = root.getFile();
+            final var separator = spec.indexOf(JAR_SEPARATOR);
+            try {
+                return separator < 0 ? null : toLocalPath(new URL(spec.substring(0, separator)));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return getLocalPath(root);
+    }
+
+    /**
+     * @return the file of the runtime image the {@code jrt} file system reads modules from
+     */
+    static Path getRuntimeImageFile() {
+        return Path.of(System.getProperty("java.home"), "lib", "modules");
+    }
+
+    /**
+     * @return the sorted binary names of all classes in the package and its sub packages
+     */
+    List<String> getClassNames() throws IOException {
+        if (base == null) {
+            return List.of();
+        }
+        final var classNames = new TreeSet<String>();
+        addClassNames(base.resolve(packagePath), classNames);
+        for (final var version : versions) {
+            addClassNames(version.resolve(packagePath), classNames);
+        }
+        return new ArrayList<>(classNames);
+    }
+
+    /**
+     * @param className a class name as returned by {@link #getClassNames()}
+     * @return the contents of the class file, memory mapped if it is a large file on the default file system
+     */
+    ByteBuffer readClassFile(String className) throws IOException {
+        final var relativePath = className.replace('.', '/') + CLASS_FILE_SUFFIX;
+        for (final var version : versions) {
+            final var path = version.resolve(relativePath);
+            if (Files.exists(path)) {
+                return read(path);
+            }
+        }
+        return read(base.resolve(relativePath));
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        // Nested jars are closed before the jars they are read from
+        for (int i = openedFileSystems.size() - 1; i >= 0; i--) {
+            try {
+                openedFileSystems.get(i).close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void addClassNames(Path directory, TreeSet<String> classNames) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (final Stream<Path> files = Files.walk(directory)) {
+            for (final var file : (Iterable<Path>) files::iterator) {
+                final var name = file.getFileName().toString();
+                if (!name.endsWith(CLASS_FILE_SUFFIX) || name.equals(MODULE_INFO) || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                final var relativePath = directory.relativize(file).toString();
+                final var separator = file.getFileSystem().getSeparator();
+                classNames.add(packageName + "." + relativePath.substring(0, relativePath.length() - CLASS_FILE_SUFFIX.length()).replace(separator, "."));
+            }
+        }
+    }
+
+    private static ByteBuffer read(Path path) throws IOException {
+        if (path.getFileSystem() == FileSystems.getDefault() && Files.size(path) >= MAPPING_THRESHOLD) {
+            try (final var channel = FileChannel.open(path)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(path));
+    }
+
+    /**
+     * Opens the jar, and every jar nested in it, as a zip file system. The jar URL connection is never used, so jars
+     * are not kept open in its cache after the scan.
+     */
+    private static PackageRoot openJar(URL root, String packageName) throws IOException {
+        final var segments = root.getFile().split(JAR_SEPARATOR);
+        final var jarFile = toLocalPath(new URL(segments[0]));
+        if (jarFile == null) {
+            throw new IOException("Jar " + segments[0] + " is not a local file");
+        }
+        final var fileSystems = new ArrayList<FileSystem>(segments.length - 1);
+        try {
+            fileSystems.add(FileSystems.newFileSystem(jarFile));
+            // The last segment is the package directory, the ones before it are nested jars
+            for (int i = 1; i < segments.length - 1; i++) {
+                final var nestedJar = fileSystems.get(i - 1).getPath(URLDecoder.decode(segments[i].replace("+", "%2B"), StandardCharsets.UTF_8));
+                fileSystems.add(FileSystems.newFileSystem(nestedJar));
+            }
+            final var base = fileSystems.get(fileSystems.size() - 1).getPath("/");
+            return new PackageRoot(packageName, List.copyOf(fileSystems), base, getVersions(base));
+        } catch (IOException | RuntimeException e) {
+            for (final var fileSystem : fileSystems) {
+                try {
+                    fileSystem.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static List<Path> getVersions(Path base) throws IOException {
+        final Manifest manifest;
+        try (final InputStream input = Files.newInputStream(base.resolve("META-INF/MANIFEST.MF"))) {
+            manifest = new Manifest(input);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+        if (!"true".equalsIgnoreCase(manifest.getMainAttributes().getValue("Multi-Release"))) {
+            return List.of();
+        }
+
+        final var runtimeVersion = Runtime.version().feature();
+        final var versions = new ArrayList<Path>();
+        for (int version = runtimeVersion; version >= 9; version--) {
+            final var directory = base.resolve(VERSIONS_DIRECTORY).resolve(Integer.toString(version));
+            if (Files.isDirectory(directory)) {
+                versions.add(directory);
+            }
+        }
+        return List.copyOf(versions);
+    }
+
+    private static FileSystem getRuntimeImage() {
+        return FileSystems.getFileSystem(URI.create("jrt:/"));
+    }
+
+    private static String getModuleName(URL root) {
+        final var path = root.getPath();
+        final var end = path.indexOf('/', 1);
+        return end < 0 ? path.substring(1) : path.substring(1, end);
+    }
+
+    private static Path getLocalPath(URL root) {
+        return "file".equals(root.getProtocol()) ? toLocalPath(root) : null;
+    }
+
+    private static Path toLocalPath(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            // Class loaders built from File.toURL() do not encode their URLs
+            return Path.of(URLDecoder.decode(url.getPath(), StandardCharsets.UTF_8));
+        }
+    }
+}
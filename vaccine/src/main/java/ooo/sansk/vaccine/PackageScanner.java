@@ -0,0 +1,247 @@
+package ooo.sansk.vaccine;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.module.ModuleDescriptor;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+public class PackageScanner {
+    private static final int CHUNK_SIZE = 256;
+
+    private PackageScanner() {
+    }
+
+    /**
+     * Finds the roots of the package in the resources of the class loader, followed by the roots in the named modules
+     * of the boot layer the class loader can see. Modules are matched on the package names their descriptors declare,
+     * so modules that do not contain the package or one of its sub packages are never opened. Modules in a runtime
+     * image are found this way even though their packages are not visible as resources.
+     *
+     * @param classLoader the class loader to search
+     * @param packageName the package name to search
+     * @return the directories, jar entries and runtime image directories that contribute classes to the package, in
+     * class loader order
+     * @throws IOException if the class loader could not list its resources
+     */
+    static List<URL> getPackageRoots(ClassLoader classLoader, String packageName) throws IOException {
+        final var packagePath = packageName.replace('.', '/');
+        final var roots = new LinkedHashMap<String, URL>();
+        for (final var root : Collections.list(classLoader.getResources(packagePath))) {
+            roots.putIfAbsent(normalize(root.toString()), root);
+        }
+        final var layer = ModuleLayer.boot();
+        for (final var module : layer.modules()) {
+            if (!isVisible(module.getClassLoader(), classLoader) || !containsPackage(module.getDescriptor(), packageName)) {
+                continue;
+            }
+            final var location = layer.configuration().findModule(module.getName())
+                    .flatMap(resolvedModule -> resolvedModule.reference().location());
+            if (location.isEmpty()) {
+                continue;
+            }
+            final var root = getModuleRoot(location.get(), packagePath);
+            if (root != null) {
+                roots.putIfAbsent(normalize(root.toString()), root);
+            }
+        }
+        return new ArrayList<>(roots.values());
+    }
+
+    /**
+     * Lists the classes a single package root contributes, without loading them.
+     *
+     * @param root        a root as returned by {@link #getPackageRoots(ClassLoader, String)}
+     * @param packageName the package name to search
+     * @return the sorted binary names of all classes in the package and its sub packages
+     * @throws IOException if the root could not be read
+     */
+    static List<String> getClassNames(URL root, String packageName) throws IOException {
+        try (final var packageRoot = PackageRoot.open(root, packageName)) {
+            return packageRoot.getClassNames();
+        }
+    }
+
+    /**
+     * Selects the listed classes that carry the given annotation. The class files are read directly, so classes
+     * without the annotation are never loaded. Class files that can not be parsed are selected, so the caller can
+     * inspect them after loading.
+     *
+     * @param root           an open root
+     * @param classNames     class names as returned by {@link PackageRoot#getClassNames()} for the same root
+     * @param annotationType a runtime retained annotation
+     * @return the annotated classes, in the order they were listed
+     * @throws IOException if a class file could not be read
+     */
+    static List<String> getAnnotatedClassNames(PackageRoot root, List<String> classNames, Class<? extends Annotation> annotationType) throws IOException {
+        final var descriptor = ClassFileReader.getDescriptor(annotationType);
+        final var annotatedClassNames = new ArrayList<String>();
+        for (final var className : classNames) {
+            if (isAnnotatedWith(root.readClassFile(className), descriptor)) {
+                annotatedClassNames.add(className);
+            }
+        }
+        return annotatedClassNames;
+    }
+
+    /**
+     * Splits the class names into consecutive chunks and processes them on the executor. The results are concatenated
+     * in the order of the chunks, so the outcome does not depend on which chunk finishes first.
+     *
+     * @param classNames the class names to process
+     * @param task       the work to do for one chunk. Checked exceptions should be wrapped in a
+     *                   {@link CompletionException}.
+     * @param executor   the executor to run the chunks on
+     * @return a future of the concatenated results
+     */
+    static <T> CompletableFuture<List<T>> processInChunks(List<String> classNames, Function<List<String>, List<T>> task, Executor executor) {
+        final var chunks = new ArrayList<CompletableFuture<List<T>>>();
+        for (int start = 0; start < classNames.size(); start += CHUNK_SIZE) {
+            final var chunk = classNames.subList(start, Math.min(start + CHUNK_SIZE, classNames.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> task.apply(chunk), executor));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            final var results = new ArrayList<T>();
+            chunks.forEach(chunk -> results.addAll(chunk.join()));
+            return results;
+        });
+    }
+
+    private static boolean isAnnotatedWith(ByteBuffer classFile, String annotationDescriptor) {
+        try {
+            return ClassFileReader.isAnnotatedWith(classFile, annotationDescriptor);
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static boolean isVisible(ClassLoader moduleLoader, ClassLoader classLoader) {
+        // Modules of the boot loader are visible to every class loader
+        if (moduleLoader == null) {
+            return true;
+        }
+        for (var current = classLoader; current != null; current = current.getParent()) {
+            if (current == moduleLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsPackage(ModuleDescriptor descriptor, String packageName) {
+        final var packagePrefix = packageName + ".";
+        for (final var modulePackage : descriptor.packages()) {
+            if (modulePackage.equals(packageName) || modulePackage.startsWith(packagePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the URL of the package directory in the module, in the form a class loader would return it
+     */
+    private static URL getModuleRoot(URI location, String packagePath) throws IOException {
+        return switch (location.getScheme()) {
+            case "jrt" -> new URL(location + "/" + packagePath);
+            case "file" -> {
+                final var path = Path.of(location);
+                if (Files.isDirectory(path)) {
+                    yield path.resolve(packagePath).toUri().toURL();
+                }
+                yield new URL("jar:" + location + "!/" + packagePath);
+            }
+            default -> null;
+        };
+    }
+
+    private static String normalize(String root) {
+        return root.endsWith("/") ? root.substring(0, root.length() - 1) : root;
+    }
+
+    /**
+     * @param initialize whether the classes are initialized while they are loaded
+     * @throws ClassNotFoundException if a listed class could not be found
+     */
+    static List<Class<?>> loadClasses(ClassLoader classLoader, List<String> classNames, boolean initialize) throws ClassNotFoundException {
+        final var classes = new ArrayList<Class<?>>(classNames.size());
+        for (final var className : classNames) {
+            try {
+                classes.add(Class.forName(className, initialize, classLoader));
+            } catch (final NoClassDefFoundError e) {
+                // do nothing. this class hasn't been found by the
+                // loader, and we don't care.
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Attempts to list all the classes in the specified package as determined
+     * by the given class loader
+     *
+     * @param packageName the package name to search
+     * @return a list of classes that exist within that package
+     * @throws ClassNotFoundException if something went wrong
+     */
+    public static List<Class<?>> getClassesForPackage(ClassLoader classLoader, String packageName) throws ClassNotFoundException {
+        return getClassesForPackage(classLoader, packageName, Runnable::run);
+    }
+
+    /**
+     * Attempts to list all the classes in the specified package as determined by the given class loader. All roots of
+     * the package are listed concurrently, and the classes of every root are loaded in chunks on the executor. The
+     * result is ordered as if the package was scanned on a single thread.
+     *
+     * @param packageName the package name to search
+     * @param executor    the executor to scan on
+     * @return a list of classes that exist within that package
+     * @throws ClassNotFoundException if something went wrong
+     */
+    public static List<Class<?>> getClassesForPackage(ClassLoader classLoader, String packageName, Executor executor) throws ClassNotFoundException {
+        final var roots = new ArrayList<CompletableFuture<List<Class<?>>>>();
+        try {
+            for (final var root : getPackageRoots(classLoader, packageName)) {
+                roots.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return getClassNames(root, packageName);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor).thenCompose(classNames -> processInChunks(classNames, chunk -> {
+                    try {
+                        return loadClasses(classLoader, chunk, true);
+                    } catch (ClassNotFoundException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor)));
+            }
+
+            final var classes = new ArrayList<Class<?>>();
+            for (final var root : roots) {
+                classes.addAll(root.join());
+            }
+            return classes;
+        } catch (final NullPointerException nullPointerException) {
+            throw new ClassNotFoundException(packageName + " does not appear to be a valid package (Null pointer exception)", nullPointerException);
+        } catch (final IOException ioException) {
+            throw new ClassNotFoundException("IOException was thrown when trying to get all resources for " + packageName, ioException);
+        } catch (final CompletionException completionException) {
+            if (completionException.getCause() instanceof ClassNotFoundException classNotFoundException) {
+                throw classNotFoundException;
+            }
+            throw new ClassNotFoundException("Could not scan " + packageName, completionException.getCause());
+        }
+    }
+}
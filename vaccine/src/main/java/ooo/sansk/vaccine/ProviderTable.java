@@ -0,0 +1,101 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.annotation.Provided;
+import ooo.sansk.vaccine.model.ComponentDependency;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Dispatch table from every provider component and provided type of an injection to the {@link Provided} method that
+ * provides it, built once from the scanned metadata. Resolving a provided argument is two lookups followed by a direct
+ * method handle call, and every slot keeps the results of its method as its {@link Provided#caching() caching}
+ * demands. Several components may provide the same type, each of them has its own slot.
+ */
+final class ProviderTable {
+    private final Map<Class<?>, Map<Class<?>, Slot>> slotsByProvider;
+
+    private ProviderTable(Map<Class<?>, Map<Class<?>, Slot>> slotsByProvider) {
+        this.slotsByProvider = slotsByProvider;
+    }
+
+    static ProviderTable of(List<ComponentDependency> dependencies) {
+        final var slotsByProvider = new HashMap<Class<?>, Map<Class<?>, Slot>>();
+        for (final var dependency : dependencies) {
+            if (dependency.getProvidedClasses().length == 0) {
+                continue;
+            }
+            final var invoker = ComponentInvoker.of(dependency.getType());
+            final var slots = new HashMap<Class<?>, Slot>();
+            for (final var providedClass : dependency.getProvidedClasses()) {
+                final var method = invoker.getProvider(providedClass);
+                if (method != null) {
+                    slots.putIfAbsent(providedClass, new Slot(method));
+                }
+            }
+            slotsByProvider.putIfAbsent(dependency.getType(), slots);
+        }
+        return new ProviderTable(slotsByProvider);
+    }
+
+    /**
+     * @param providerType the component that declares the method
+     * @return the slot of the method of the component providing exactly the given type, or {@code null} if there is
+     * none
+     */
+    Slot get(Class<?> providerType, Class<?> providedType) {
+        final var slots = slotsByProvider.get(providerType);
+        return slots == null ? null : slots.get(providedType);
+    }
+
+    /**
+     * A provider method and the results it returned so far.
+     */
+    static final class Slot {
+        private final ComponentInvoker.ProviderMethod method;
+        private final Map<List<Object>, Object> results;
+        private volatile Object singleton;
+
+        private Slot(ComponentInvoker.ProviderMethod method) {
+            this.method = method;
+            this.results = method.caching() == Provided.Caching.BOUNDED ? new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                    return size() > method.cacheSize();
+                }
+            } : null;
+        }
+
+        ComponentInvoker.ProviderMethod getMethod() {
+            return method;
+        }
+
+        /**
+         * @return the result of an earlier call of a {@link Provided.Caching#SINGLETON} method, without locking
+         */
+        Object getSingleton() {
+            return singleton;
+        }
+
+        void setSingleton(Object singleton) {
+            this.singleton = singleton;
+        }
+
+        /**
+         * @param arguments the property values the method is called with, compared by equality
+         * @return the kept result of a {@link Provided.Caching#BOUNDED} method for equal arguments, or the result of
+         * calling it now
+         */
+        synchronized Object getBounded(List<Object> arguments, Supplier<Object> call) {
+            if (results.containsKey(arguments)) {
+                return results.get(arguments);
+            }
+            final var result = call.get();
+            results.put(arguments, result);
+            return result;
+        }
+    }
+}
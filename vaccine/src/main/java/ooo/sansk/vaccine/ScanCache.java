@@ -0,0 +1,234 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.model.ComponentDependency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * On-disk cache of the components found in each package root, keyed by a fingerprint of that root.
+ * <p>
+ * A jar or a runtime image is fingerprinted by its size and modification time, a directory by the paths, sizes and
+ * modification times of all files below the package. Only roots whose fingerprint changed since the cache was written
+ * have to be scanned again. A missing or unreadable cache file is treated as empty. Roots may be looked up and stored concurrently.
+ */
+final class ScanCache {
+    private static final Logger logger = LoggerFactory.getLogger(ScanCache.class);
+    private static final int FORMAT_VERSION = 2;
+
+    private final Path file;
+    private final Map<String, RootEntry> cachedRoots;
+    private final Map<String, RootEntry> scannedRoots = new TreeMap<>();
+
+    private ScanCache(Path file, Map<String, RootEntry> cachedRoots) {
+        this.file = file;
+        this.cachedRoots = cachedRoots;
+    }
+
+    static ScanCache load(Path directory, String basePackage) {
+        final var file = directory.resolve(basePackage + ".scan");
+        try (final var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != FORMAT_VERSION) {
+                return new ScanCache(file, Map.of());
+            }
+            final var roots = new LinkedHashMap<String, RootEntry>();
+            final var rootCount = input.readInt();
+            for (int i = 0; i < rootCount; i++) {
+                final var root = input.readUTF();
+                final var fingerprint = input.readUTF();
+                final var components = new ArrayList<ComponentEntry>();
+                final var componentCount = input.readInt();
+                for (int j = 0; j < componentCount; j++) {
+                    final var className = input.readUTF();
+                    final var dependencies = readStrings(input);
+                    final var qualifiers = new ArrayList<String>(dependencies.size());
+                    final var multiple = new ArrayList<Boolean>(dependencies.size());
+                    for (int k = 0; k < dependencies.size(); k++) {
+                        qualifiers.add(input.readBoolean() ? input.readUTF() : null);
+                        multiple.add(input.readBoolean());
+                    }
+                    components.add(new ComponentEntry(className, dependencies, qualifiers, multiple, readStrings(input)));
+                }
+                roots.put(root, new RootEntry(fingerprint, components));
+            }
+            return new ScanCache(file, roots);
+        } catch (NoSuchFileException e) {
+            return new ScanCache(file, Map.of());
+        } catch (IOException e) {
+            logger.warn("Could not read scan cache {}, scanning all package roots", file, e);
+            return new ScanCache(file, Map.of());
+        }
+    }
+
+    /**
+     * @return the components cached for the root, if they were cached with the same fingerprint
+     */
+    synchronized Optional<List<ComponentEntry>> get(URL root, String fingerprint) {
+        final var entry = cachedRoots.get(root.toString());
+        if (entry == null || !entry.fingerprint().equals(fingerprint)) {
+            return Optional.empty();
+        }
+        scannedRoots.put(root.toString(), entry);
+        return Optional.of(entry.components());
+    }
+
+    synchronized void put(URL root, String fingerprint, List<ComponentDependency> components) {
+        final var entries = new ArrayList<ComponentEntry>(components.size());
+        for (final var component : components) {
+            final var dependencies = component.getDependencies();
+            final var qualifiers = new ArrayList<String>(dependencies.length);
+            final var multiple = new ArrayList<Boolean>(dependencies.length);
+            for (int i = 0; i < dependencies.length; i++) {
+                qualifiers.add(component.getQualifier(i));
+                multiple.add(component.isMultiple(i));
+            }
+            entries.add(new ComponentEntry(component.getType().getName(), getNames(dependencies), qualifiers, multiple, getNames(component.getProvidedClasses())));
+        }
+        scannedRoots.put(root.toString(), new RootEntry(fingerprint, entries));
+    }
+
+    /**
+     * Writes all roots passed to {@link #get} or {@link #put} since loading, ordered by root. Roots that were not seen
+     * are dropped.
+     */
+    synchronized void save() {
+        if (scannedRoots.equals(cachedRoots)) {
+            return;
+        }
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (final var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(scannedRoots.size());
+                for (final var root : scannedRoots.entrySet()) {
+                    output.writeUTF(root.getKey());
+                    output.writeUTF(root.getValue().fingerprint());
+                    output.writeInt(root.getValue().components().size());
+                    for (final var component : root.getValue().components()) {
+                        output.writeUTF(component.className());
+                        writeStrings(output, component.dependencies());
+                        for (int i = 0; i < component.dependencies().size(); i++) {
+                            final var qualifier = component.qualifiers().get(i);
+                            output.writeBoolean(qualifier != null);
+                            if (qualifier != null) {
+                                output.writeUTF(qualifier);
+                            }
+                            output.writeBoolean(component.multiple().get(i));
+                        }
+                        writeStrings(output, component.providedClasses());
+                    }
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporaryFile = null;
+        } catch (IOException e) {
+            logger.warn("Could not write scan cache {}", file, e);
+        } finally {
+            if (temporaryFile != null) {
+                try {
+                    Files.deleteIfExists(temporaryFile);
+                } catch (IOException e) {
+                    logger.debug("Could not delete {}", temporaryFile, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the fingerprint of the root, or nothing if the root is not a local jar, directory or runtime image
+     */
+    static Optional<String> fingerprint(URL root) throws IOException {
+        final var digest = createDigest();
+        // A runtime image changes as a whole, its modules are fingerprinted by the image file
+        final var path = "jrt".equals(root.getProtocol()) ? PackageRoot.getRuntimeImageFile() : PackageRoot.getLocalFile(root);
+        if (path == null || !Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        if (Files.isDirectory(path)) {
+            try (final var files = Files.walk(path)) {
+                for (final var child : (Iterable<Path>) files.sorted()::iterator) {
+                    updateDigest(digest, path.relativize(child).toString(), child);
+                }
+            }
+        } else {
+            updateDigest(digest, path.toString(), path);
+        }
+        return Optional.of(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static void updateDigest(MessageDigest digest, String name, Path path) throws IOException {
+        final var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update(ByteBuffer.allocate(Long.BYTES * 2)
+                .putLong(attributes.size())
+                .putLong(attributes.lastModifiedTime().toMillis())
+                .flip());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be available on every Java platform", e);
+        }
+    }
+
+    private static List<String> getNames(Class<?>[] classes) {
+        final var names = new ArrayList<String>(classes.length);
+        for (final var clazz : classes) {
+            names.add(clazz.getName());
+        }
+        return names;
+    }
+
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        final var count = input.readInt();
+        final var strings = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(input.readUTF());
+        }
+        return strings;
+    }
+
+    private static void writeStrings(DataOutputStream output, List<String> strings) throws IOException {
+        output.writeInt(strings.size());
+        for (final var string : strings) {
+            output.writeUTF(string);
+        }
+    }
+
+    record RootEntry(String fingerprint, List<ComponentEntry> components) {
+    }
+
+    /**
+     * @param qualifiers the qualifier of every dependency, {@code null} for unqualified dependencies
+     * @param multiple   whether each dependency is a collection
+     */
+    record ComponentEntry(String className, List<String> dependencies, List<String> qualifiers, List<Boolean> multiple, List<String> providedClasses) {
+    }
+}
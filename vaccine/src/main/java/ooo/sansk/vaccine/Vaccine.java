@@ -0,0 +1,1222 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.BeforeDestroy;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Lazy;
+import ooo.sansk.vaccine.annotation.OnPropertyChange;
+import ooo.sansk.vaccine.annotation.Pooled;
+import ooo.sansk.vaccine.annotation.Property;
+import ooo.sansk.vaccine.annotation.Scope;
+import ooo.sansk.vaccine.convert.PropertyConverter;
+import ooo.sansk.vaccine.convert.PropertyConverters;
+import ooo.sansk.vaccine.exception.CircularDependencyException;
+import ooo.sansk.vaccine.exception.DependencyInstantiationException;
+import ooo.sansk.vaccine.exception.MissingPropertyException;
+import ooo.sansk.vaccine.exception.PropertyConversionException;
+import ooo.sansk.vaccine.exception.UnknownDependencyException;
+import ooo.sansk.vaccine.index.ComponentIndex;
+import ooo.sansk.vaccine.listener.InjectionListener;
+import ooo.sansk.vaccine.listener.InjectionPhase;
+import ooo.sansk.vaccine.model.ArgumentBinding;
+import ooo.sansk.vaccine.model.ComponentDependency;
+import ooo.sansk.vaccine.model.ComponentGraph;
+import ooo.sansk.vaccine.model.ComponentRegistry;
+import ooo.sansk.vaccine.model.DependencyGraph;
+import ooo.sansk.vaccine.model.WiringPlan;
+import ooo.sansk.vaccine.reload.PropertyChange;
+import ooo.sansk.vaccine.reload.PropertyChangeListener;
+import ooo.sansk.vaccine.reload.ReloadableProperties;
+import ooo.sansk.vaccine.scope.ComponentPool;
+import ooo.sansk.vaccine.scope.ComponentScope;
+import ooo.sansk.vaccine.scope.PrototypeScope;
+import ooo.sansk.vaccine.scope.ThreadScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class Vaccine implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Vaccine.class);
+
+    private final Map<Class<?>, Object> creationLocks = new ConcurrentHashMap<>();
+    // Singletons whose @AfterCreate methods run, only visible to the thread holding their creation lock
+    private final Map<Class<?>, Object> initializingInstances = new ConcurrentHashMap<>();
+    private final List<InjectionListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, ComponentScope> scopes = new ConcurrentHashMap<>(Map.of(
+            Scope.PROTOTYPE, new PrototypeScope(),
+            Scope.THREAD, new ThreadScope()
+    ));
+    private final Map<Class<?>, ComponentPool<?>> pools = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<ArgumentBinding>> argumentBindings = new ConcurrentHashMap<>();
+    private final Vaccine parent;
+    private final PropertyConverters propertyConverters;
+    private final PropertyChangeListener propertyChangeListener = this::onPropertiesChanged;
+    private final Queue<CompletableFuture<DependencyInstantiationException>> pendingInitializations = new ConcurrentLinkedQueue<>();
+
+    private volatile ComponentRegistry registry = new ComponentRegistry(List.of());
+    private volatile ProviderTable providerTable = ProviderTable.of(List.of());
+    private volatile Properties properties;
+    private volatile ReloadableProperties reloadableProperties;
+    private Executor executor;
+    private boolean componentIndexEnabled = true;
+    private boolean bytecodeScanningEnabled;
+    private boolean lazy;
+    private Path scanCacheDirectory;
+    private volatile InjectionRecorder recorder = new InjectionRecorder(List.of());
+    private Duration destroyTimeout = Duration.ofSeconds(30);
+    private volatile CompletableFuture<Void> readiness = CompletableFuture.completedFuture(null);
+
+    public Vaccine() {
+        this.parent = null;
+        this.propertyConverters = new PropertyConverters();
+    }
+
+    private Vaccine(Vaccine parent) {
+        this.parent = parent;
+        this.propertyConverters = new PropertyConverters(parent.propertyConverters);
+        this.registry = new ComponentRegistry(parent.registry, List.of());
+        this.executor = parent.executor;
+        this.componentIndexEnabled = parent.componentIndexEnabled;
+        this.bytecodeScanningEnabled = parent.bytecodeScanningEnabled;
+        this.lazy = parent.lazy;
+        this.scanCacheDirectory = parent.scanCacheDirectory;
+        this.destroyTimeout = parent.destroyTimeout;
+        this.listeners.addAll(parent.listeners);
+    }
+
+    /**
+     * Creates a container that shares the components of this one. The child starts with the settings, listeners and
+     * property converters of this container, but with its own scopes. Property converters registered on the child
+     * only apply to the child.
+     * <p>
+     * A child only holds what it adds: the components it injects itself, their instances and its own properties.
+     * Every other component, property and provided object is looked up in this container, and singletons of this
+     * container are shared with all children instead of being created again. A component that the child injects
+     * itself replaces a component of the same class, or the implementations of an interface, for the components of
+     * the child; the components of this container keep their own wiring.
+     * <p>
+     * The child falls back to the components of this container as they are when the child is injected. Closing the
+     * child destroys only its own components.
+     */
+    public Vaccine createChild() {
+        return new Vaccine(this);
+    }
+
+    /**
+     * Enables parallel injection. Components are grouped in topological layers and all components of a layer,
+     * including their {@link AfterCreate} methods, are constructed concurrently on the given executor. Package roots
+     * are scanned concurrently on the same executor.
+     *
+     * @param executor the executor to construct components on, or {@code null} to construct them one at a time
+     *                 on the injecting thread
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param componentIndexEnabled whether a {@link ComponentIndex} found through the {@link ServiceLoader} may be used
+     *                              instead of scanning the jar or directory it is part of. Enabled by default.
+     */
+    public void setComponentIndexEnabled(boolean componentIndexEnabled) {
+        this.componentIndexEnabled = componentIndexEnabled;
+    }
+
+    /**
+     * Enables bytecode scanning. Class files are inspected for the {@link Component} annotation before they are
+     * loaded, so classes that are not components are never loaded or initialized.
+     *
+     * @param bytecodeScanningEnabled whether class files are filtered before loading. Disabled by default.
+     */
+    public void setBytecodeScanningEnabled(boolean bytecodeScanningEnabled) {
+        this.bytecodeScanningEnabled = bytecodeScanningEnabled;
+    }
+
+    /**
+     * Enables the scan cache. The components found in every classpath root are stored in the given directory, and
+     * are reused on the next injection for all roots that did not change in the meantime.
+     *
+     * @param scanCacheDirectory the directory to keep the cache in, or {@code null} to scan every time
+     */
+    public void setScanCacheDirectory(Path scanCacheDirectory) {
+        this.scanCacheDirectory = scanCacheDirectory;
+    }
+
+    /**
+     * @param lazy whether all components are treated as if they were annotated with {@link Lazy}
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    /**
+     * Adds a listener for the timings of the next injections. Listeners registered as a {@link ServiceLoader} service
+     * with the injection class loader are added automatically.
+     */
+    public void addInjectionListener(InjectionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Makes a scope available to components annotated with {@code @Scope(name)}. Replaces a scope registered earlier
+     * under the same name, including the built-in scopes.
+     *
+     * @throws IllegalArgumentException if the name is {@link Scope#SINGLETON}
+     */
+    public void registerScope(String name, ComponentScope scope) {
+        if (Scope.SINGLETON.equals(name)) {
+            throw new IllegalArgumentException("The singleton scope can not be replaced");
+        }
+        scopes.put(name, scope);
+    }
+
+    /**
+     * Makes {@link Property} parameters of the given type injectable. Replaces the built-in conversion of the type if
+     * there is one, and applies to {@code List}s of the type as well.
+     */
+    public <T> void registerPropertyConverter(Class<T> type, PropertyConverter<? extends T> converter) {
+        propertyConverters.register(type, converter);
+    }
+
+    /**
+     * @param destroyTimeout how long {@link #close()} waits for the {@link BeforeDestroy} methods of a single component
+     *                       before it continues with the components that component depends on. 30 seconds by default.
+     */
+    public void setDestroyTimeout(Duration destroyTimeout) {
+        this.destroyTimeout = destroyTimeout;
+    }
+
+    public void inject(Properties properties, String basePackage) {
+        inject(properties, basePackage, Thread.currentThread().getContextClassLoader());
+    }
+
+    public void inject(Properties properties, String basePackage, ClassLoader classLoader) throws UnknownDependencyException {
+        setReloadableProperties(null);
+        injectScanned(properties, basePackage, classLoader);
+    }
+
+    public void inject(ReloadableProperties properties, String basePackage) {
+        inject(properties, basePackage, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Injects the current properties and keeps the components up to date afterwards. Whenever the properties are
+     * reloaded, the {@link OnPropertyChange} methods of the created singleton components are called for the changed
+     * keys, and components that are created later receive the new values.
+     */
+    public void inject(ReloadableProperties properties, String basePackage, ClassLoader classLoader) throws UnknownDependencyException {
+        setReloadableProperties(properties);
+        injectScanned(properties.getProperties(), basePackage, classLoader);
+    }
+
+    private void injectScanned(Properties properties, String basePackage, ClassLoader classLoader) {
+        this.properties = properties;
+
+        logger.info("Initializing Injection");
+        recorder = new InjectionRecorder(getListeners(classLoader));
+        final var scanner = new ComponentScanner(classLoader, componentIndexEnabled, bytecodeScanningEnabled, scanCacheDirectory, executor);
+
+        var measurement = recorder.startPhase();
+        final var scannedDependencies = scanner.scan(basePackage);
+        recorder.phaseCompleted(InjectionPhase.SCAN, measurement);
+
+        injectDependencies(scannedDependencies);
+    }
+
+    /**
+     * Injects exactly the given component classes, and the components outside of them that they refer to, without
+     * scanning. Meant for {@link #createChild() children} that add a few components to a shared parent, but works for
+     * any container.
+     */
+    public void inject(Properties properties, Collection<Class<?>> componentTypes) {
+        setReloadableProperties(null);
+        this.properties = properties;
+
+        logger.info("Initializing Injection of {} components", componentTypes.size());
+        recorder = new InjectionRecorder(getListeners(Thread.currentThread().getContextClassLoader()));
+
+        final var measurement = recorder.startPhase();
+        final var dependencies = new ArrayList<ComponentDependency>(componentTypes.size());
+        for (final var componentType : componentTypes) {
+            dependencies.add(ComponentScanner.getInjectionDetails(componentType));
+        }
+        recorder.phaseCompleted(InjectionPhase.SCAN, measurement);
+
+        injectDependencies(dependencies);
+    }
+
+    private void injectDependencies(List<ComponentDependency> dependencies) {
+        final var measurement = recorder.startPhase();
+        argumentBindings.clear();
+        // Components referenced from outside the scanned packages may have conditions as well
+        final var conditions = new ComponentConditions(this::getPropertyValue, this::createRegistry);
+        registry = createRegistry(conditions.filter(addReferencedComponents(conditions.filter(dependencies))));
+        providerTable = ProviderTable.of(registry.getDependencies());
+        pools.clear();
+        clearScopes();
+        recorder.phaseCompleted(InjectionPhase.METADATA, measurement);
+
+        // Checked as a whole before anything is created, so every unknown dependency and cycle is reported at once
+        instantiateComponents(() -> DependencyGraph.of(registry).getLayers());
+    }
+
+    private ComponentRegistry createRegistry(List<ComponentDependency> dependencies) {
+        return parent == null ? new ComponentRegistry(dependencies) : new ComponentRegistry(parent.registry, dependencies);
+    }
+
+    /**
+     * Starts from a plan created by {@link #createWiringPlan()} instead of scanning. The planned argument bindings are
+     * used as they are, so no dependencies are resolved; only the constructors and {@link AfterCreate} methods run.
+     *
+     * @throws DependencyInstantiationException if a planned constructor no longer matches its bindings
+     */
+    public void inject(Properties properties, WiringPlan plan) {
+        setReloadableProperties(null);
+        this.properties = properties;
+
+        logger.info("Initializing Injection from wiring plan");
+        recorder = new InjectionRecorder(getListeners(Thread.currentThread().getContextClassLoader()));
+
+        final var measurement = recorder.startPhase();
+        argumentBindings.clear();
+        plan.getEntries().forEach(entry -> argumentBindings.put(entry.type(), entry.arguments()));
+        registry = createRegistry(plan.getDependencies());
+        providerTable = ProviderTable.of(registry.getDependencies());
+        pools.clear();
+        clearScopes();
+        recorder.phaseCompleted(InjectionPhase.METADATA, measurement);
+
+        instantiateComponents(() -> getPlannedLayers(plan));
+    }
+
+    /**
+     * Groups the planned components like {@link DependencyGraph#getLayers()}, but from the bindings of the plan. The
+     * entries are in topological order, so the components an entry refers to are placed before it.
+     */
+    private List<List<ComponentDependency>> getPlannedLayers(WiringPlan plan) {
+        final var layersByType = new HashMap<Class<?>, Integer>();
+        final var layers = new ArrayList<List<ComponentDependency>>();
+        for (final var entry : plan.getEntries()) {
+            var layer = 0;
+            for (final var argument : entry.arguments()) {
+                for (final var binding : argument.isCollection() ? argument.elements() : List.of(argument)) {
+                    // Properties have no target, components of a parent are not part of the plan
+                    final var targetLayer = binding.target() == null ? null : layersByType.get(binding.target());
+                    if (targetLayer != null) {
+                        layer = Math.max(layer, targetLayer + 1);
+                    }
+                }
+            }
+            layersByType.put(entry.type(), layer);
+            if (layer == layers.size()) {
+                layers.add(new ArrayList<>());
+            }
+            layers.get(layer).add(registry.getDependency(entry.type()).orElseThrow());
+        }
+        return layers;
+    }
+
+    /**
+     * Captures the wiring of the last injection. Bindings are resolved for every component, including lazy and scoped
+     * components that were not created yet.
+     *
+     * @return the components in topological order with the bindings of their constructor arguments
+     * @throws UnknownDependencyException  if a component depends on a type that can not be resolved
+     * @throws CircularDependencyException if the components depend on each other in a cycle
+     */
+    public WiringPlan createWiringPlan() {
+        final var entries = new ArrayList<WiringPlan.Entry>();
+        for (final var layer : DependencyGraph.of(registry).getLayers()) {
+            for (final var dependency : layer) {
+                final var type = dependency.getType();
+                entries.add(WiringPlan.Entry.of(dependency, getArgumentBindings(type, ComponentInvoker.of(type))));
+            }
+        }
+        return new WiringPlan(entries);
+    }
+
+    /**
+     * @param layers the components grouped so that every component only depends on components in earlier layers
+     */
+    private void instantiateComponents(Supplier<List<List<ComponentDependency>>> layers) {
+        pendingInitializations.clear();
+        final var measurement = recorder.startPhase();
+        final var componentLayers = layers.get();
+        if (executor != null) {
+            resolveDependenciesInParallel(componentLayers);
+        } else {
+            for (final var componentDependency : registry.getDependencies()) {
+                if (isEager(componentDependency.getType()) && isDependencyNotCreated(componentDependency)) {
+                    resolveDependency(componentDependency);
+                }
+            }
+        }
+
+        recorder.phaseCompleted(InjectionPhase.INSTANTIATION, measurement);
+        recorder.injectionCompleted(registry);
+        readiness = collectInitializations();
+
+        logger.info("Found following components:");
+        registry.getDependencies().forEach(dependency -> logger.info(dependency.getType().getName()));
+    }
+
+    private List<InjectionListener> getListeners(ClassLoader classLoader) {
+        final var list = new ArrayList<>(listeners);
+        try {
+            ServiceLoader.load(InjectionListener.class, classLoader).forEach(list::add);
+        } catch (ServiceConfigurationError e) {
+            logger.warn("Could not load injection listeners", e);
+        }
+        return list;
+    }
+
+    private boolean isDependencyNotCreated(ComponentDependency dependency) {
+        return !registry.isInstantiated(dependency.getType());
+    }
+
+    private boolean isLazy(Class<?> type) {
+        return lazy || type.isAnnotationPresent(Lazy.class);
+    }
+
+    private boolean isEager(Class<?> type) {
+        return !isLazy(type) && isSingleton(type);
+    }
+
+    private static boolean isSingleton(Class<?> type) {
+        if (type.isAnnotationPresent(Pooled.class)) {
+            return false;
+        }
+        final var scope = type.getAnnotation(Scope.class);
+        return scope == null || Scope.SINGLETON.equals(scope.value());
+    }
+
+    private List<ComponentDependency> addReferencedComponents(List<ComponentDependency> scannedDependencies) {
+        final var list = new ArrayList<ComponentDependency>(scannedDependencies);
+        final var seen = new HashSet<Class<?>>();
+        scannedDependencies.forEach(dependency -> seen.add(dependency.getType()));
+        final var queue = new ArrayDeque<>(scannedDependencies);
+        while (!queue.isEmpty()) {
+            // Components outside the scanned package are still injected when a scanned component asks for them
+            for (final var dependency : queue.poll().getDependencies()) {
+                if (dependency.isAnnotationPresent(Component.class) && !isParentComponent(dependency) && seen.add(dependency)) {
+                    final var injectionDetails = ComponentScanner.getInjectionDetails(dependency);
+                    list.add(injectionDetails);
+                    queue.add(injectionDetails);
+                }
+            }
+        }
+        return list;
+    }
+
+    private boolean isParentComponent(Class<?> type) {
+        return parent != null && parent.registry.getDependency(type).isPresent();
+    }
+
+    /**
+     * @return whether the component belongs to the parent, which creates it
+     */
+    private boolean isInherited(Class<?> type) {
+        return parent != null && registry.isInherited(type);
+    }
+
+    private void resolveDependency(ComponentDependency dependency) {
+        createWithDependencies(dependency.getType());
+    }
+
+    private void resolveDependenciesInParallel(List<List<ComponentDependency>> layers) {
+        for (final var layer : layers) {
+            final var futures = layer.stream()
+                    .filter(dependency -> isEager(dependency.getType()))
+                    .map(dependency -> CompletableFuture.runAsync(() -> resolveDependency(dependency), executor))
+                    .toArray(CompletableFuture<?>[]::new);
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new DependencyInstantiationException("Could not create components in parallel", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Creates the component after all singletons it needs, dependencies first. The dependencies are walked with an
+     * explicit stack instead of recursion, so the depth of the graph is not limited by the size of the thread's stack.
+     * Every component is created while the components waiting for it are its parents, as if it was created
+     * recursively.
+     */
+    private Object createWithDependencies(Class<?> type) {
+        final var path = new LinkedHashSet<Class<?>>();
+        final var visited = new HashSet<Class<?>>();
+        final var stack = new ArrayDeque<PendingComponent>();
+        stack.push(new PendingComponent(type, getDependencyBindings(type)));
+        visited.add(type);
+        while (true) {
+            final var pending = stack.peek();
+            final var next = nextUncreatedDependency(pending.bindings());
+            if (next != null) {
+                if (visited.add(next)) {
+                    path.add(pending.type());
+                    stack.push(new PendingComponent(next, getDependencyBindings(next)));
+                }
+                continue;
+            }
+
+            stack.pop();
+            if (stack.isEmpty()) {
+                return createOrGetCandidateInstance(type, path);
+            }
+            if (isSingleton(pending.type())) {
+                createOrGetCandidateInstance(pending.type(), path);
+            }
+            path.remove(stack.peek().type());
+        }
+    }
+
+    /**
+     * @return the bindings of the constructor arguments, with collection bindings replaced by their elements
+     */
+    private Iterator<ArgumentBinding> getDependencyBindings(Class<?> type) {
+        final var bindings = getArgumentBindings(type, ComponentInvoker.of(type));
+        if (bindings.stream().noneMatch(ArgumentBinding::isCollection)) {
+            return bindings.iterator();
+        }
+        final var flattened = new ArrayList<ArgumentBinding>();
+        for (final var binding : bindings) {
+            if (binding.isCollection()) {
+                flattened.addAll(binding.elements());
+            } else {
+                flattened.add(binding);
+            }
+        }
+        return flattened.iterator();
+    }
+
+    /**
+     * @return the next component the bindings refer to that is created when the arguments are resolved, or
+     * {@code null} if all remaining arguments are properties, lazy proxies or existing singletons
+     */
+    private Class<?> nextUncreatedDependency(Iterator<ArgumentBinding> bindings) {
+        while (bindings.hasNext()) {
+            final var binding = bindings.next();
+            final var target = binding.target();
+            if (target == null || isInherited(target) || canBeLazilyProxied(binding.requestedType(), target) || (isSingleton(target) && registry.isInstantiated(target))) {
+                continue;
+            }
+            return target;
+        }
+        return null;
+    }
+
+    private Object createOrGetCandidateInstance(Class<?> candidate, Set<Class<?>> parents) {
+        if (!isSingleton(candidate)) {
+            return getScopedInstance(candidate, parents);
+        }
+
+        final var createdInstance = registry.getInstance(candidate);
+        if (createdInstance.isPresent()) {
+            return createdInstance.get();
+        }
+
+        synchronized (creationLocks.computeIfAbsent(candidate, type -> new Object())) {
+            final var concurrentlyCreatedInstance = registry.getInstance(candidate);
+            if (concurrentlyCreatedInstance.isPresent()) {
+                return concurrentlyCreatedInstance.get();
+            }
+            // Requested again by its own @AfterCreate methods
+            final var initializingInstance = initializingInstances.get(candidate);
+            if (initializingInstance != null) {
+                return initializingInstance;
+            }
+
+            final var instance = createInstanceFromCandidate(candidate, parents);
+            // Published only once initialized, readers of the registry do not take the lock
+            initializingInstances.put(candidate, instance);
+            try {
+                runAfterCreation(instance);
+            } finally {
+                initializingInstances.remove(candidate);
+            }
+            registry.register(instance);
+            return instance;
+        }
+    }
+
+    private Object getScopedInstance(Class<?> candidate, Set<Class<?>> parents) {
+        if (candidate.isAnnotationPresent(Pooled.class)) {
+            throw new DependencyInstantiationException(candidate.getName() + " is pooled and can only be borrowed", null);
+        }
+        final var scopeName = candidate.getAnnotation(Scope.class).value();
+        final var scope = scopes.get(scopeName);
+        if (scope == null) {
+            throw new DependencyInstantiationException("Unknown scope " + scopeName + " of " + candidate.getName(), null);
+        }
+        return scope.get(candidate, () -> createUnregisteredInstance(candidate, parents));
+    }
+
+    private Object createUnregisteredInstance(Class<?> candidate, Set<Class<?>> parents) {
+        final var instance = createInstanceFromCandidate(candidate, parents);
+        runAfterCreation(instance);
+        return instance;
+    }
+
+    private Object createInstanceFromCandidate(Class<?> candidate, Set<Class<?>> parents) {
+        if (parents.contains(candidate)) {
+            throw new CircularDependencyException(new ArrayList<>(parents), candidate);
+        }
+
+        final var invoker = ComponentInvoker.of(candidate);
+        final var depth = parents.size();
+        final Object[] arguments;
+        parents.add(candidate);
+        try {
+            arguments = resolveConstructorArguments(candidate, invoker, parents);
+        } finally {
+            parents.remove(candidate);
+        }
+        final var measurement = recorder.startComponent();
+        final var instance = invoker.newInstance(arguments);
+        recorder.componentCreated(candidate, depth, measurement);
+        return instance;
+    }
+
+    private record PendingComponent(Class<?> type, Iterator<ArgumentBinding> bindings) {
+    }
+
+    private Object[] resolveConstructorArguments(Class<?> candidate, ComponentInvoker invoker, Set<Class<?>> parents) {
+        final var bindings = getArgumentBindings(candidate, invoker);
+        final var arguments = new Object[bindings.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            final var binding = bindings.get(i);
+            arguments[i] = switch (binding.kind()) {
+                case PROPERTY -> resolvePropertyDependency(candidate, invoker, i, binding.propertyKey());
+                case COMPONENT -> resolveComponentArgument(candidate, binding.requestedType(), binding.target(), parents);
+                case PROVIDED -> resolveProvidedArgument(candidate, binding.requestedType(), binding.target(), parents);
+                case LIST, SET, MAP -> resolveCollectionArgument(candidate, binding, parents);
+            };
+        }
+        return arguments;
+    }
+
+    private Object resolveCollectionArgument(Class<?> candidate, ArgumentBinding binding, Set<Class<?>> parents) {
+        final var elements = binding.elements();
+        switch (binding.kind()) {
+            case LIST -> {
+                final var list = new ArrayList<>(elements.size());
+                for (final var element : elements) {
+                    list.add(resolveElement(candidate, element, parents));
+                }
+                return Collections.unmodifiableList(list);
+            }
+            case SET -> {
+                final var set = new LinkedHashSet<>();
+                for (final var element : elements) {
+                    set.add(resolveElement(candidate, element, parents));
+                }
+                return Collections.unmodifiableSet(set);
+            }
+            default -> {
+                final var map = new LinkedHashMap<String, Object>();
+                for (final var element : elements) {
+                    // Provided objects are keyed by the provided type, components by their name
+                    final var key = element.kind() == ArgumentBinding.Kind.PROVIDED
+                            ? element.requestedType().getName()
+                            : ComponentRegistry.getName(element.target());
+                    if (map.put(key, resolveElement(candidate, element, parents)) != null) {
+                        throw new DependencyInstantiationException("More than one component named " + key + " to inject in " + candidate.getName(), null);
+                    }
+                }
+                return Collections.unmodifiableMap(map);
+            }
+        }
+    }
+
+    private Object resolveElement(Class<?> candidate, ArgumentBinding element, Set<Class<?>> parents) {
+        return element.kind() == ArgumentBinding.Kind.PROVIDED
+                ? resolveProvidedArgument(candidate, element.requestedType(), element.target(), parents)
+                : resolveComponentArgument(candidate, element.requestedType(), element.target(), parents);
+    }
+
+    private List<ArgumentBinding> getArgumentBindings(Class<?> candidate, ComponentInvoker invoker) {
+        final var bindings = argumentBindings.computeIfAbsent(candidate, type -> bindArguments(type, invoker));
+        if (bindings.size() != invoker.getParameterCount()) {
+            throw new DependencyInstantiationException("The wiring plan does not match the constructor of " + candidate.getName(), null);
+        }
+        return bindings;
+    }
+
+    private List<ArgumentBinding> bindArguments(Class<?> candidate, ComponentInvoker invoker) {
+        final var bindings = new ArrayList<ArgumentBinding>(invoker.getParameterCount());
+        for (int i = 0; i < invoker.getParameterCount(); i++) {
+            final var parameterType = invoker.getParameterType(i);
+            final var propertyKey = invoker.getPropertyKey(i);
+            if (propertyKey != null) {
+                bindings.add(ArgumentBinding.property(propertyKey, parameterType));
+                continue;
+            }
+
+            final var elementType = invoker.getElementType(i);
+            if (elementType != null) {
+                bindings.add(bindCollection(candidate, parameterType, elementType));
+                continue;
+            }
+
+            final var qualifier = invoker.getQualifier(i);
+            if (qualifier != null) {
+                final var namedImplementation = registry.getNamedImplementation(parameterType, qualifier);
+                if (namedImplementation.isEmpty()) {
+                    throw new UnknownDependencyException(candidate, parameterType, qualifier);
+                }
+                bindings.add(ArgumentBinding.component(parameterType, namedImplementation.get().getType()));
+                continue;
+            }
+
+            if (parameterType.isAnnotationPresent(Component.class)) {
+                bindings.add(ArgumentBinding.component(parameterType, parameterType));
+                continue;
+            }
+
+            final var provider = getProvider(parameterType);
+            if (provider.isPresent()) {
+                bindings.add(ArgumentBinding.provided(parameterType, provider.get()));
+                continue;
+            }
+
+            final var implementation = registry.getImplementation(parameterType);
+            if (implementation.isEmpty()) {
+                throw new UnknownDependencyException(candidate, parameterType);
+            }
+            bindings.add(ArgumentBinding.component(parameterType, implementation.get().getType()));
+        }
+        return List.copyOf(bindings);
+    }
+
+    /**
+     * Binds every component assignable to the element type and every provided object of that type, except the
+     * candidate itself.
+     */
+    private ArgumentBinding bindCollection(Class<?> candidate, Class<?> collectionType, Class<?> elementType) {
+        final var elements = new ArrayList<ArgumentBinding>();
+        for (final var implementation : registry.getImplementations(elementType)) {
+            if (implementation.getType() != candidate) {
+                elements.add(ArgumentBinding.component(elementType, implementation.getType()));
+            }
+        }
+        for (final var provision : registry.getProvisions(elementType)) {
+            if (provision.provider().getType() != candidate) {
+                elements.add(ArgumentBinding.provided(provision.providedType(), provision.provider().getType()));
+            }
+        }
+        final var kind = collectionType == List.class ? ArgumentBinding.Kind.LIST
+                : collectionType == Set.class ? ArgumentBinding.Kind.SET
+                : ArgumentBinding.Kind.MAP;
+        return ArgumentBinding.collection(kind, collectionType, elements);
+    }
+
+    private Object resolveComponentArgument(Class<?> candidate, Class<?> requestedType, Class<?> componentType, Set<Class<?>> parents) {
+        if (isInherited(componentType)) {
+            // The parent never depends on components of its children, so its components can not be part of a cycle
+            return parent.resolveComponentArgument(candidate, requestedType, componentType, new LinkedHashSet<>());
+        }
+        if (canBeLazilyProxied(requestedType, componentType)) {
+            return LazyProxy.create(requestedType, () -> createWithDependencies(componentType));
+        }
+        return createOrGetCandidateInstance(componentType, parents);
+    }
+
+    private Object resolveProvidedArgument(Class<?> candidate, Class<?> requestedType, Class<?> providerType, Set<Class<?>> parents) {
+        if (isInherited(providerType)) {
+            return parent.resolveProvidedArgument(candidate, requestedType, providerType, new LinkedHashSet<>());
+        }
+        if (canBeLazilyProxied(requestedType, providerType)) {
+            return LazyProxy.create(requestedType, () -> searchAndCreateProviderInstance(createWithDependencies(providerType), providerType, requestedType));
+        }
+        Object providerInstance = createOrGetCandidateInstance(providerType, parents);
+        return searchAndCreateProviderInstance(providerInstance, providerType, requestedType);
+    }
+
+    private boolean canBeLazilyProxied(Class<?> requestedType, Class<?> componentType) {
+        return requestedType.isInterface() && isLazy(componentType) && isSingleton(componentType) && !registry.isInstantiated(componentType);
+    }
+
+    private Object searchAndCreateProviderInstance(Object providerInstance, Class<?> providerType, Class<?> requestedType) {
+        final var slot = providerTable.get(providerType, requestedType);
+        if (slot == null) {
+            throw new DependencyInstantiationException(providerType.getName() + " has no @Provided method for " + requestedType.getName(), null);
+        }
+        final var method = slot.getMethod();
+        return switch (method.caching()) {
+            case SINGLETON -> provideSingleton(providerInstance, slot);
+            case FACTORY -> invokeProvider(providerInstance, method, resolveProviderArguments(method));
+            case BOUNDED -> {
+                final var arguments = resolveProviderArguments(method);
+                yield slot.getBounded(Arrays.asList(arguments), () -> invokeProvider(providerInstance, method, arguments));
+            }
+        };
+    }
+
+    private Object provideSingleton(Object providerInstance, ProviderTable.Slot slot) {
+        final var providedObject = slot.getSingleton();
+        if (providedObject != null) {
+            return providedObject;
+        }
+        synchronized (slot) {
+            if (slot.getSingleton() != null) {
+                return slot.getSingleton();
+            }
+            final var method = slot.getMethod();
+            final var createdObject = invokeProvider(providerInstance, method, resolveProviderArguments(method));
+            if (createdObject != null) {
+                registry.register(createdObject);
+                slot.setSingleton(createdObject);
+            }
+            return createdObject;
+        }
+    }
+
+    private Object invokeProvider(Object providerInstance, ComponentInvoker.ProviderMethod method, Object[] arguments) {
+        final var measurement = recorder.startProvider();
+        final var providedObject = method.invoke(providerInstance, arguments);
+        recorder.providerInvoked(method.providerType(), method.providedType(), measurement);
+        return providedObject;
+    }
+
+    private Object[] resolveProviderArguments(ComponentInvoker.ProviderMethod method) {
+        final var arguments = new Object[method.properties().size()];
+        for (int i = 0; i < arguments.length; i++) {
+            final var property = method.properties().get(i);
+            arguments[i] = resolveProperty(method.providerType(), property, property.value(), method.parameterTypes().get(i));
+        }
+        return arguments;
+    }
+
+    private Object resolvePropertyDependency(Class<?> candidate, ComponentInvoker invoker, int index, String key) {
+        return resolveProperty(candidate, invoker.getProperty(index), key, invoker.getGenericParameterType(index));
+    }
+
+    private Object resolveProperty(Class<?> candidate, Property property, String key, Type type) {
+        var value = getPropertyValue(key);
+        if (value == null && property != null && !Property.NO_DEFAULT.equals(property.defaultValue())) {
+            value = property.defaultValue();
+        }
+        if (value == null) {
+            if ((property != null && property.required()) || (type instanceof Class<?> rawType && rawType.isPrimitive())) {
+                throw new MissingPropertyException(candidate, key);
+            }
+            return null;
+        }
+
+        try {
+            return propertyConverters.convert(type, value);
+        } catch (RuntimeException e) {
+            throw new PropertyConversionException(candidate, key, value, type, e);
+        }
+    }
+
+    /**
+     * @return the value of the property in this container, or in its parents
+     */
+    private String getPropertyValue(String key) {
+        final var currentProperties = properties;
+        final var value = currentProperties == null ? null : currentProperties.getProperty(key);
+        if (value == null && parent != null) {
+            return parent.getPropertyValue(key);
+        }
+        return value;
+    }
+
+    private synchronized void setReloadableProperties(ReloadableProperties source) {
+        if (reloadableProperties != null) {
+            reloadableProperties.removeListener(propertyChangeListener);
+        }
+        reloadableProperties = source;
+        if (source != null) {
+            source.addListener(propertyChangeListener);
+        }
+    }
+
+    private void onPropertiesChanged(List<PropertyChange> changes) {
+        final var source = reloadableProperties;
+        if (source != null) {
+            properties = source.getProperties();
+        }
+        for (final var dependency : registry.getDependencies()) {
+            final var instance = registry.getInstance(dependency.getType());
+            if (instance.isEmpty()) {
+                continue;
+            }
+            final var invoker = ComponentInvoker.of(dependency.getType());
+            for (final var change : changes) {
+                for (final var method : invoker.getPropertyChangeMethods(change.key())) {
+                    notifyPropertyChange(instance.get(), method, change);
+                }
+            }
+        }
+    }
+
+    private void notifyPropertyChange(Object instance, ComponentInvoker.PropertyChangeMethod method, PropertyChange change) {
+        final Object argument;
+        final var parameterType = method.parameterType();
+        if (parameterType == null) {
+            argument = null;
+        } else if (parameterType == PropertyChange.class) {
+            argument = change;
+        } else if (change.isRemoved()) {
+            if (parameterType instanceof Class<?> type && type.isPrimitive()) {
+                logger.warn("Property {} was removed, not calling @OnPropertyChange method {} of {}", change.key(), method.name(), instance.getClass().getName());
+                return;
+            }
+            argument = null;
+        } else {
+            try {
+                argument = propertyConverters.convert(parameterType, change.newValue());
+            } catch (RuntimeException e) {
+                logger.error("Could not convert property {} for @OnPropertyChange method {} of {}", change.key(), method.name(), instance.getClass().getName(), e);
+                return;
+            }
+        }
+
+        try {
+            method.invoke(instance, argument);
+        } catch (Throwable e) {
+            logger.error("Could not run @OnPropertyChange method {} for {}", method.name(), instance.getClass().getName(), e);
+        }
+    }
+
+    private void runAfterCreation(Object injectable) {
+        for (final var method : ComponentInvoker.of(injectable.getClass()).getAfterCreateMethods()) {
+            final var measurement = recorder.startAfterCreate();
+            if (method.async()) {
+                final var initialization = CompletableFuture.supplyAsync(() -> invokeAfterCreate(injectable, method),
+                        getBackgroundExecutor("vaccine-init-" + injectable.getClass().getSimpleName()));
+                trackInitialization(injectable, method, initialization.thenCompose(Vaccine::toStage), measurement);
+                continue;
+            }
+
+            try {
+                final var result = method.invoke(injectable);
+                if (result instanceof CompletionStage<?> stage) {
+                    trackInitialization(injectable, method, stage, measurement);
+                } else {
+                    recorder.afterCreateCompleted(injectable.getClass(), method.name(), measurement);
+                }
+            } catch (Throwable e) {
+                logger.error("Could not run @AfterCreate method {} for {}", method.name(), injectable.getClass().getName(), e);
+            }
+        }
+    }
+
+    private static Object invokeAfterCreate(Object injectable, ComponentInvoker.LifecycleMethod method) {
+        try {
+            return method.invoke(injectable);
+        } catch (Throwable e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static CompletionStage<?> toStage(Object result) {
+        return result instanceof CompletionStage<?> stage ? stage : CompletableFuture.completedFuture(result);
+    }
+
+    private void trackInitialization(Object injectable, ComponentInvoker.LifecycleMethod method, CompletionStage<?> stage, InjectionRecorder.Measurement measurement) {
+        final var type = injectable.getClass();
+        final var currentRecorder = recorder;
+        pendingInitializations.add(stage.toCompletableFuture().handle((result, e) -> {
+            if (e == null) {
+                currentRecorder.afterCreateCompleted(type, method.name(), measurement);
+                return null;
+            }
+            final var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.error("Could not run @AfterCreate method {} for {}", method.name(), type.getName(), cause);
+            return new DependencyInstantiationException("Could not initialize " + type.getName() + " in @AfterCreate method " + method.name(), cause);
+        }));
+    }
+
+    /**
+     * @return a future that completes once every initialization tracked since the last call finished, or fails with
+     * the first error and the others suppressed
+     */
+    private CompletableFuture<Void> collectInitializations() {
+        final var initializations = new ArrayList<CompletableFuture<DependencyInstantiationException>>();
+        for (CompletableFuture<DependencyInstantiationException> initialization; (initialization = pendingInitializations.poll()) != null; ) {
+            initializations.add(initialization);
+        }
+
+        final var readiness = new CompletableFuture<Void>();
+        CompletableFuture.allOf(initializations.toArray(CompletableFuture<?>[]::new)).thenRun(() -> {
+            DependencyInstantiationException failure = null;
+            for (final var initialization : initializations) {
+                final var error = initialization.join();
+                if (error == null) {
+                    continue;
+                }
+                if (failure == null) {
+                    failure = error;
+                } else {
+                    failure.addSuppressed(error);
+                }
+            }
+            if (failure == null) {
+                readiness.complete(null);
+            } else {
+                readiness.completeExceptionally(failure);
+            }
+        });
+        return readiness;
+    }
+
+    /**
+     * @return the configured executor, or the shared pool of daemon threads. Tasks on the pool run on a thread renamed
+     * to the given name while they run.
+     */
+    private Executor getBackgroundExecutor(String threadName) {
+        if (executor != null) {
+            return executor;
+        }
+        return runnable -> BackgroundThreads.POOL.execute(() -> {
+            final var thread = Thread.currentThread();
+            final var poolThreadName = thread.getName();
+            thread.setName(threadName);
+            try {
+                runnable.run();
+            } finally {
+                thread.setName(poolThreadName);
+            }
+        });
+    }
+
+    /**
+     * Runs asynchronous lifecycle methods when no executor is set. The pool is bounded, so a container with many
+     * components does not start a thread for each of them, and idle threads stop after a minute. Created on first use
+     * only.
+     */
+    private static final class BackgroundThreads {
+        private static final int SIZE = Math.max(4, Runtime.getRuntime().availableProcessors());
+        private static final AtomicInteger threadCount = new AtomicInteger();
+        private static final ThreadPoolExecutor POOL = createPool();
+
+        private static ThreadPoolExecutor createPool() {
+            final var pool = new ThreadPoolExecutor(SIZE, SIZE, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), runnable -> {
+                final var thread = new Thread(runnable, "vaccine-background-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    private Optional<Class<?>> getProvider(Class<?> type) {
+        return registry.getProvider(type).map(ComponentDependency::getType);
+    }
+
+
+    /**
+     * Looks up the component of exactly the given type. This never locks once the component exists. A lazy component,
+     * or a component requested while {@link #inject} is still running, is created on the calling thread; concurrent
+     * requests for the same component wait for that single creation.
+     */
+    public Optional<Object> getInjected(Class<?> type) {
+        final var currentRegistry = registry;
+        final var instance = currentRegistry.getInstance(type);
+        if (instance.isPresent()) {
+            return instance;
+        }
+        if (parent != null && currentRegistry.isInherited(type)) {
+            return parent.getInjected(type);
+        }
+        return currentRegistry.getDependency(type).map(dependency -> createWithDependencies(type));
+    }
+
+    /**
+     * Borrows an instance of a {@link Pooled} component. The instance has to be returned by closing the lease.
+     *
+     * @throws IllegalArgumentException if the type is not a pooled component of the last injection
+     * @throws InterruptedException     if the thread was interrupted while waiting for an instance
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ComponentPool.Lease<T> borrow(Class<T> type) throws InterruptedException {
+        if (isInherited(type)) {
+            return parent.borrow(type);
+        }
+        final var pooled = type.getAnnotation(Pooled.class);
+        if (pooled == null || registry.getDependency(type).isEmpty()) {
+            throw new IllegalArgumentException(type.getName() + " is not a pooled component");
+        }
+        final var pool = (ComponentPool<T>) pools.computeIfAbsent(type, key ->
+                new ComponentPool<>(pooled.size(), () -> type.cast(createUnregisteredInstance(type, new LinkedHashSet<>()))));
+        return pool.borrow();
+    }
+
+    /**
+     * The components are usable once {@link #inject} returns, but asynchronous {@link AfterCreate} methods may still be
+     * running.
+     *
+     * @return a future that completes when all asynchronous {@link AfterCreate} methods of the components created
+     * during the last injection finished. If any of them failed, it fails with the first
+     * {@link DependencyInstantiationException}, all other failures are suppressed by it.
+     */
+    public CompletableFuture<Void> getReadiness() {
+        return readiness.copy();
+    }
+
+    /**
+     * @return an unmodifiable snapshot of all created components. For a {@link #createChild() child} these are only
+     * the components it created itself.
+     */
+    public List<Object> getCandidates() {
+        return registry.getInstances();
+    }
+
+    /**
+     * @return the components of the last injection and the dependencies between them, for analysis and export. For a
+     * {@link #createChild() child} only its own components are part of the graph.
+     */
+    public ComponentGraph getComponentGraph() {
+        return ComponentGraph.of(registry);
+    }
+
+    /**
+     * Destroys the singleton components, the instances the scopes still hold and the idle instances of pooled
+     * components by calling their {@link BeforeDestroy} methods. Prototypes are not kept by the container and are never
+     * destroyed. Every component, including the instances the scopes held, is destroyed after all components that
+     * depend on it, and components that do not depend on each other are destroyed concurrently: on the
+     * {@link #setExecutor executor} if there is one, otherwise on a bounded pool of daemon threads shared by all
+     * containers. Components whose methods do not finish within the
+     * {@link #setDestroyTimeout destroy timeout} are left running, the components they depend on are destroyed anyway.
+     * <p>
+     * Afterwards the container is empty and can be injected again. Errors in destroy methods are logged.
+     */
+    @Override
+    public void close() {
+        final var closedRegistry = registry;
+        final var closedPools = Map.copyOf(pools);
+        registry = createRegistry(List.of());
+        providerTable = ProviderTable.of(List.of());
+        pools.clear();
+        final var scopedInstances = clearScopes();
+        setReloadableProperties(null);
+
+        logger.info("Destroying components");
+        final DependencyGraph graph;
+        try {
+            graph = DependencyGraph.of(closedRegistry);
+        } catch (RuntimeException e) {
+            // The graph is checked before any component is created, so a failed check left only scoped instances
+            destroyUnordered(scopedInstances);
+            return;
+        }
+        final var dependents = new HashMap<ComponentDependency, List<ComponentDependency>>();
+        for (final var layer : graph.getLayers()) {
+            for (final var dependency : layer) {
+                for (final var target : graph.getDependencies(dependency)) {
+                    dependents.computeIfAbsent(target, key -> new ArrayList<>()).add(dependency);
+                }
+            }
+        }
+
+        final var destroyed = new HashMap<ComponentDependency, CompletableFuture<Void>>();
+        final var layers = graph.getLayers();
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            for (final var dependency : layers.get(i)) {
+                final var destroyedDependents = dependents.getOrDefault(dependency, List.of()).stream().map(destroyed::get)
+                        .toArray(CompletableFuture<?>[]::new);
+                final var instances = new ArrayList<>(getDestroyableInstances(closedRegistry, closedPools, dependency.getType()));
+                // A scoped component is a node of the graph like any other, only its instances are held by the scope
+                instances.addAll(scopedInstances.getOrDefault(dependency.getType(), List.of()));
+                scopedInstances.remove(dependency.getType());
+                destroyed.put(dependency, CompletableFuture.allOf(destroyedDependents)
+                        .thenCompose(ignored -> destroyInstances(dependency.getType(), instances)));
+            }
+        }
+        // Instances of types that are not components of this container, so nothing here depends on them
+        destroyUnordered(scopedInstances);
+        CompletableFuture.allOf(destroyed.values().toArray(CompletableFuture<?>[]::new)).join();
+    }
+
+    private void destroyUnordered(Map<Class<?>, List<Object>> instancesByType) {
+        CompletableFuture.allOf(instancesByType.entrySet().stream()
+                .map(entry -> destroyInstances(entry.getKey(), entry.getValue()))
+                .toArray(CompletableFuture<?>[]::new)).join();
+    }
+
+    /**
+     * @return the instances the scopes forgot, by component type
+     */
+    private Map<Class<?>, List<Object>> clearScopes() {
+        final var instances = new LinkedHashMap<Class<?>, List<Object>>();
+        for (final var scope : scopes.values()) {
+            for (final var instance : scope.clear()) {
+                instances.computeIfAbsent(instance.getClass(), type -> new ArrayList<>()).add(instance);
+            }
+        }
+        return instances;
+    }
+
+    private static List<Object> getDestroyableInstances(ComponentRegistry closedRegistry, Map<Class<?>, ComponentPool<?>> closedPools, Class<?> type) {
+        final var pool = closedPools.get(type);
+        if (pool != null) {
+            return List.copyOf(pool.drainIdle());
+        }
+        return closedRegistry.getInstance(type).map(List::of).orElse(List.of());
+    }
+
+    private CompletableFuture<Void> destroyInstances(Class<?> type, List<Object> instances) {
+        final var methods = ComponentInvoker.of(type).getBeforeDestroyMethods();
+        if (methods.isEmpty() || instances.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final var timeout = destroyTimeout;
+        return CompletableFuture.runAsync(() -> instances.forEach(instance -> runBeforeDestroy(instance, methods)), getBackgroundExecutor("vaccine-destroy-" + type.getSimpleName()))
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .exceptionally(e -> {
+                    logger.warn("@BeforeDestroy methods of {} did not finish within {}, destroying its dependencies anyway", type.getName(), timeout);
+                    return null;
+                });
+    }
+
+    private static void runBeforeDestroy(Object instance, List<ComponentInvoker.LifecycleMethod> methods) {
+        for (final var method : methods) {
+            try {
+                method.invoke(instance);
+            } catch (Throwable e) {
+                logger.error("Could not run @BeforeDestroy method {} for {}", method.name(), instance.getClass().getName(), e);
+            }
+        }
+    }
+}
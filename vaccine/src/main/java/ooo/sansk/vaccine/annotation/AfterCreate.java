@@ -0,0 +1,22 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Called once the component is created, before it is injected into other components.
+ * <p>
+ * A method that returns a {@link java.util.concurrent.CompletionStage} or is marked {@link #async()} initializes the
+ * component in the background: other components are injected with it right away, and
+ * {@link ooo.sansk.vaccine.Vaccine#getReadiness()} waits for the initialization to finish.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AfterCreate {
+    /**
+     * @return whether the method is called on the executor of the container instead of the creating thread
+     */
+    boolean async() default false;
+}
@@ -5,7 +5,11 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Called by {@link ooo.sansk.vaccine.Vaccine#close()} before the component is discarded. The components a component
+ * depends on are still usable while its methods run.
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
-public @interface Provided {
+public @interface BeforeDestroy {
 }
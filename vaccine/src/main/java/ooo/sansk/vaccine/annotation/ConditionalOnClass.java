@@ -0,0 +1,19 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Only activates the {@link Component} if all given classes can be loaded by the class loader of the component.
+ * The classes are named instead of referenced, so the annotation can be read when they are missing.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConditionalOnClass {
+    /**
+     * @return the binary names of the required classes
+     */
+    String[] value();
+}
@@ -0,0 +1,19 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Only activates the {@link Component} if no other active component, or object provided by one, is assignable to
+ * any of the given types. Meant for defaults that step aside when an alternative is present.
+ * <p>
+ * Components without this annotation are considered first. Components with it are considered in scan order, so of
+ * two defaults for the same type only the first is activated.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConditionalOnMissingComponent {
+    Class<?>[] value();
+}
@@ -0,0 +1,29 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Only activates the {@link Component} if a property has a certain value. Inactive components are never initialized,
+ * constructed or injected, and neither are the components that can only be created with them.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConditionalOnProperty {
+    /**
+     * @return the key of the property
+     */
+    String value();
+
+    /**
+     * @return the value the property needs to have, ignoring case. If empty, any value except {@code false} will do.
+     */
+    String havingValue() default "";
+
+    /**
+     * @return whether the component is active when the property is not set
+     */
+    boolean matchIfMissing() default false;
+}
@@ -0,0 +1,16 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defers creating a {@link Component} until it is first requested through {@link ooo.sansk.vaccine.Vaccine#getInjected}
+ * or needed by another component. Dependencies on an interface of a lazy component receive a proxy that creates the
+ * component on its first method call.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Lazy {
+}
@@ -0,0 +1,19 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * On a {@link Component}, gives the component a name. On a constructor parameter, injects the component with that
+ * name, which makes it possible to choose between several implementations of the parameter type.
+ * <p>
+ * The name is also the key of the component in injected {@code Map<String, T>}s. Components without a name are keyed
+ * by their class name.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.PARAMETER})
+public @interface Named {
+    String value();
+}
@@ -0,0 +1,23 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Calls the method when one of the given properties changes after injection, if the components were injected from
+ * {@link ooo.sansk.vaccine.reload.ReloadableProperties}. The method is called once for every changed key.
+ * <p>
+ * The method may have no parameters, a {@link ooo.sansk.vaccine.reload.PropertyChange} parameter, or a parameter of
+ * any type a {@link Property} can be converted to, which receives the new value. Only singleton components are
+ * notified.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface OnPropertyChange {
+    /**
+     * @return the keys of the properties to subscribe to
+     */
+    String[] value();
+}
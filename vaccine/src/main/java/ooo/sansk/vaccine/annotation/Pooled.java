@@ -0,0 +1,17 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps a bounded pool of reusable instances of a {@link Component}. Instances are created on demand, up to the
+ * given size, and are only handed out through {@link ooo.sansk.vaccine.Vaccine#borrow}. Pooled components can not be
+ * dependencies of other components.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Pooled {
+    int size() default 8;
+}
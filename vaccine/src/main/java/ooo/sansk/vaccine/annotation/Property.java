@@ -0,0 +1,37 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects a property into a constructor parameter. The value is converted to the parameter type: strings,
+ * primitives and their wrappers, {@link java.time.Duration}, enums, {@link java.util.List}s of those separated by
+ * commas and every type with a converter registered through {@link ooo.sansk.vaccine.Vaccine#registerPropertyConverter}.
+ * <p>
+ * Values of the built-in immutable types, which are the primitive wrappers, {@code Duration}, enums and lists of
+ * those, are converted once and shared by all components that receive an equal value of the same type, up to 256
+ * values per type. Strings and the values of registered converters are never shared.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Property {
+    /**
+     * Marks that a property has no default value. A private use character, so an empty default stays possible.
+     */
+    String NO_DEFAULT = "\uE000";
+
+    String value();
+
+    /**
+     * @return the value to use when the property is not set
+     */
+    String defaultValue() default NO_DEFAULT;
+
+    /**
+     * @return whether injection fails when the property is not set and there is no default value. Properties that
+     * are not required are injected as {@code null}, except for primitive parameters which are always required.
+     */
+    boolean required() default false;
+}
@@ -0,0 +1,38 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Provides the return value of a public method of a {@link Component} for injection into other components. The
+ * parameters of the method, if any, are {@link Property} parameters.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Provided {
+    Caching caching() default Caching.SINGLETON;
+
+    /**
+     * @return the number of results kept by a {@link Caching#BOUNDED} provider
+     */
+    int cacheSize() default 16;
+
+    enum Caching {
+        /**
+         * The method is called once, and the result is shared like a singleton component.
+         */
+        SINGLETON,
+        /**
+         * The method is called for every injection point, and the result is not kept.
+         */
+        FACTORY,
+        /**
+         * The method is called once for every distinct combination of property values, and the results are kept for
+         * the next injection points with the same values. Once there are more than {@link #cacheSize()} results, the
+         * least recently used one is evicted.
+         */
+        BOUNDED
+    }
+}
@@ -0,0 +1,34 @@
+package ooo.sansk.vaccine.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the {@link ooo.sansk.vaccine.scope.ComponentScope} that decides when a {@link Component} is created.
+ * Components without this annotation are singletons.
+ * <p>
+ * Components that are not singletons are never created during {@link ooo.sansk.vaccine.Vaccine#inject} and are not
+ * part of {@link ooo.sansk.vaccine.Vaccine#getCandidates}. Every dependency on them and every call to {@link
+ * ooo.sansk.vaccine.Vaccine#getInjected} asks the scope for an instance.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Scope {
+    String SINGLETON = "singleton";
+    /**
+     * A new instance for every dependency and every lookup.
+     */
+    String PROTOTYPE = "prototype";
+    /**
+     * One instance per thread.
+     */
+    String THREAD = "thread";
+
+    /**
+     * @return the name of a built-in scope or of a scope registered through {@link
+     * ooo.sansk.vaccine.Vaccine#registerScope}
+     */
+    String value();
+}
@@ -0,0 +1,14 @@
+package ooo.sansk.vaccine.convert;
+
+/**
+ * Converts the string value of a {@link ooo.sansk.vaccine.annotation.Property} to the type of the constructor
+ * parameter. Converted values are shared between components, so converters should return immutable values.
+ */
+@FunctionalInterface
+public interface PropertyConverter<T> {
+    /**
+     * @param value the property value, never {@code null}
+     * @throws RuntimeException if the value can not be converted
+     */
+    T convert(String value);
+}
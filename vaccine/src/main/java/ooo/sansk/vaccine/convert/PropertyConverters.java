@@ -0,0 +1,268 @@
+package ooo.sansk.vaccine.convert;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts property values to the types of the constructor parameters they are injected into.
+ * <p>
+ * The converter for a parameter type is looked up once and cached, so converting a property does not repeat the
+ * reflection needed to find it. Values of the built-in immutable types are interned per type: a property value is
+ * parsed only once, and every component that receives an equal value of the same type receives the same instance, even
+ * if the values were written differently. At most {@value #MAX_INTERNED_VALUES} values are kept per type, so reloaded
+ * properties do not grow the caches without limit. Strings and values of custom converters, which may be mutable, are
+ * never shared.
+ */
+public final class PropertyConverters {
+    static final int MAX_INTERNED_VALUES = 256;
+    private static final Set<Class<?>> INTERNED_TYPES = Set.of(
+            Boolean.class, Byte.class, Short.class, Character.class, Integer.class, Long.class, Float.class,
+            Double.class, Duration.class
+    );
+    private static final Map<Class<?>, Class<?>> WRAPPER_TYPES = Map.of(
+            boolean.class, Boolean.class,
+            byte.class, Byte.class,
+            short.class, Short.class,
+            char.class, Character.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class
+    );
+
+    private final PropertyConverters parent;
+    private final Map<Class<?>, PropertyConverter<?>> customConverters = new ConcurrentHashMap<>();
+    private final Map<Type, PropertyConverter<?>> resolvedConverters = new ConcurrentHashMap<>();
+    private final Map<Type, Map<String, Object>> convertedValues = new ConcurrentHashMap<>();
+    private final Map<Type, Map<Object, Object>> canonicalValues = new ConcurrentHashMap<>();
+
+    public PropertyConverters() {
+        this(null);
+    }
+
+    /**
+     * @param parent the converters to fall back to for types without a converter registered here, or {@code null}.
+     *               Converters registered on the parent after a type was converted here are not picked up for that
+     *               type.
+     */
+    public PropertyConverters(PropertyConverters parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Registers a converter for the given type, replacing the built in conversion if there is one. Values that were
+     * converted before are discarded.
+     */
+    public <T> void register(Class<T> type, PropertyConverter<? extends T> converter) {
+        customConverters.put(wrap(type), converter);
+        resolvedConverters.clear();
+        convertedValues.clear();
+        canonicalValues.clear();
+    }
+
+    /**
+     * @param type  the type to convert to, a class or a parameterized {@link List}
+     * @param value the property value
+     * @return the converted value, shared with earlier conversions to an equal value of the same type if the type is
+     * interned
+     * @throws IllegalArgumentException if there is no converter for the type
+     * @throws RuntimeException         if the value can not be converted
+     */
+    public Object convert(Type type, String value) {
+        final var converter = getConverter(type);
+        if (!isInterned(type)) {
+            return converter.convert(value);
+        }
+        final var values = convertedValues.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+        final var existing = values.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        final Object converted = converter.convert(value);
+        if (converted == null) {
+            return null;
+        }
+        final var canonicals = canonicalValues.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+        var shared = canonicals.get(converted);
+        // The bound is checked without locking, so a cache may exceed it by the number of concurrent conversions
+        if (shared == null) {
+            final var previous = canonicals.size() < MAX_INTERNED_VALUES ? canonicals.putIfAbsent(converted, converted) : null;
+            shared = previous == null ? converted : previous;
+        }
+        if (values.size() < MAX_INTERNED_VALUES) {
+            final var previous = values.putIfAbsent(value, shared);
+            return previous == null ? shared : previous;
+        }
+        return shared;
+    }
+
+    /**
+     * @return whether the type is converted by a built-in converter to immutable values, or is a list of those
+     */
+    private boolean isInterned(Type type) {
+        if (type instanceof ParameterizedType parameterizedType) {
+            return parameterizedType.getRawType() == List.class && isInterned(parameterizedType.getActualTypeArguments()[0]);
+        }
+        if (!(type instanceof Class<?> rawType)) {
+            return false;
+        }
+        final var wrappedType = wrap(rawType);
+        return getCustomConverter(wrappedType) == null && (INTERNED_TYPES.contains(wrappedType) || wrappedType.isEnum());
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no converter for the type
+     */
+    public PropertyConverter<?> getConverter(Type type) {
+        final var cached = resolvedConverters.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        final var converter = createConverter(type);
+        resolvedConverters.putIfAbsent(type, converter);
+        return converter;
+    }
+
+    private PropertyConverter<?> getCustomConverter(Class<?> wrappedType) {
+        final var converter = customConverters.get(wrappedType);
+        if (converter == null && parent != null) {
+            return parent.getCustomConverter(wrappedType);
+        }
+        return converter;
+    }
+
+    private PropertyConverter<?> createConverter(Type type) {
+        if (type instanceof ParameterizedType parameterizedType && parameterizedType.getRawType() == List.class) {
+            final var elementConverter = getConverter(parameterizedType.getActualTypeArguments()[0]);
+            return value -> convertList(value, elementConverter);
+        }
+        if (!(type instanceof Class<?> rawType)) {
+            throw new IllegalArgumentException("No property converter for " + type.getTypeName());
+        }
+
+        final var wrappedType = wrap(rawType);
+        final var customConverter = getCustomConverter(wrappedType);
+        if (customConverter != null) {
+            return customConverter;
+        }
+        if (wrappedType == String.class || wrappedType == Object.class) {
+            return value -> value;
+        }
+        if (wrappedType == Boolean.class) {
+            return PropertyConverters::parseBoolean;
+        }
+        if (wrappedType == Byte.class) {
+            return value -> Byte.valueOf(value.trim());
+        }
+        if (wrappedType == Short.class) {
+            return value -> Short.valueOf(value.trim());
+        }
+        if (wrappedType == Character.class) {
+            return PropertyConverters::parseCharacter;
+        }
+        if (wrappedType == Integer.class) {
+            return value -> Integer.valueOf(value.trim());
+        }
+        if (wrappedType == Long.class) {
+            return value -> Long.valueOf(value.trim());
+        }
+        if (wrappedType == Float.class) {
+            return value -> Float.valueOf(value.trim());
+        }
+        if (wrappedType == Double.class) {
+            return value -> Double.valueOf(value.trim());
+        }
+        if (wrappedType == Duration.class) {
+            return PropertyConverters::parseDuration;
+        }
+        if (wrappedType.isEnum()) {
+            return value -> parseEnum(wrappedType, value);
+        }
+        throw new IllegalArgumentException("No property converter for " + type.getTypeName());
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return WRAPPER_TYPES.getOrDefault(type, type);
+    }
+
+    private static List<Object> convertList(String value, PropertyConverter<?> elementConverter) {
+        if (value.isBlank()) {
+            return List.of();
+        }
+        final var elements = new ArrayList<>();
+        for (final var element : value.split(",")) {
+            elements.add(elementConverter.convert(element.trim()));
+        }
+        return List.copyOf(elements);
+    }
+
+    private static Boolean parseBoolean(String value) {
+        final var trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (trimmed.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + value);
+    }
+
+    private static Character parseCharacter(String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("Not a single character: " + value);
+        }
+        return value.charAt(0);
+    }
+
+    /**
+     * Parses an ISO-8601 duration such as {@code PT1.5S}, or a number followed by one of the units {@code ns},
+     * {@code us}, {@code ms}, {@code s}, {@code m}, {@code h} or {@code d}. A number without a unit is in milliseconds.
+     */
+    private static Duration parseDuration(String value) {
+        final var trimmed = value.trim();
+        if (trimmed.startsWith("P") || trimmed.startsWith("-P")) {
+            return Duration.parse(trimmed);
+        }
+        var unitStart = trimmed.length();
+        while (unitStart > 0 && Character.isLetter(trimmed.charAt(unitStart - 1))) {
+            unitStart--;
+        }
+        final var amount = Long.parseLong(trimmed.substring(0, unitStart).trim());
+        final var unit = switch (trimmed.substring(unitStart)) {
+            case "ns" -> ChronoUnit.NANOS;
+            case "us" -> ChronoUnit.MICROS;
+            case "", "ms" -> ChronoUnit.MILLIS;
+            case "s" -> ChronoUnit.SECONDS;
+            case "m" -> ChronoUnit.MINUTES;
+            case "h" -> ChronoUnit.HOURS;
+            case "d" -> ChronoUnit.DAYS;
+            default -> throw new IllegalArgumentException("Unknown duration unit in " + value);
+        };
+        return Duration.of(amount, unit);
+    }
+
+    private static Object parseEnum(Class<?> enumType, String value) {
+        final var trimmed = value.trim();
+        final var constants = enumType.getEnumConstants();
+        for (final var constant : constants) {
+            if (((Enum<?>) constant).name().equals(trimmed)) {
+                return constant;
+            }
+        }
+        final var normalized = trimmed.replace('-', '_').toUpperCase(Locale.ROOT);
+        for (final var constant : constants) {
+            if (((Enum<?>) constant).name().equalsIgnoreCase(normalized)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No constant " + value + " in " + enumType.getName());
+    }
+}
@@ -0,0 +1,7 @@
+package ooo.sansk.vaccine.exception;
+
+public class MissingPropertyException extends RuntimeException {
+    public MissingPropertyException(Class<?> component, String key) {
+        super("Required property " + key + " is not set for " + component);
+    }
+}
@@ -0,0 +1,9 @@
+package ooo.sansk.vaccine.exception;
+
+import java.lang.reflect.Type;
+
+public class PropertyConversionException extends RuntimeException {
+    public PropertyConversionException(Class<?> component, String key, String value, Type targetType, Throwable cause) {
+        super("Could not convert property " + key + "=" + value + " to " + targetType.getTypeName() + " for " + component, cause);
+    }
+}
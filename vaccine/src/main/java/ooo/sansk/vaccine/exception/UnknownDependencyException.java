@@ -4,4 +4,8 @@ public class UnknownDependencyException extends RuntimeException {
     public UnknownDependencyException(Class<?> parent, Class<?> child) {
         super("No injection candidates of type " + child + " found to inject in " + parent);
     }
+
+    public UnknownDependencyException(Class<?> parent, Class<?> child, String name) {
+        super("No injection candidate of type " + child + " named " + name + " found to inject in " + parent);
+    }
 }
@@ -0,0 +1,17 @@
+package ooo.sansk.vaccine.index;
+
+import java.util.List;
+
+/**
+ * A compile-time list of the {@link ooo.sansk.vaccine.annotation.Component} classes of a module.
+ * <p>
+ * Implementations are generated by the {@code vaccine-processor} annotation processor and registered as a
+ * {@link java.util.ServiceLoader} service. {@link ooo.sansk.vaccine.Vaccine} loads the listed classes directly instead
+ * of scanning the jar or directory the index was loaded from; other roots of the base package are still scanned.
+ */
+public interface ComponentIndex {
+    /**
+     * @return the binary names of all component classes in this index
+     */
+    List<String> getComponentClassNames();
+}
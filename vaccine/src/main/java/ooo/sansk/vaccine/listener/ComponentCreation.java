@@ -0,0 +1,14 @@
+package ooo.sansk.vaccine.listener;
+
+import java.time.Duration;
+
+/**
+ * The measurements of a single constructor invocation. Creating the dependencies of the component is not included.
+ *
+ * @param type           the created component
+ * @param duration       the time spent in the constructor
+ * @param allocatedBytes the bytes allocated by the constructor, or {@code -1} if the JVM can not measure allocations
+ * @param depth          the number of components whose construction was waiting for this one
+ */
+public record ComponentCreation(Class<?> type, Duration duration, long allocatedBytes, int depth) {
+}
@@ -0,0 +1,39 @@
+package ooo.sansk.vaccine.listener;
+
+import ooo.sansk.vaccine.model.ComponentGraph;
+
+import java.time.Duration;
+
+/**
+ * Receives the timings of the injection pipeline.
+ * <p>
+ * Listeners are added through {@link ooo.sansk.vaccine.Vaccine#addInjectionListener} or registered as a {@link
+ * java.util.ServiceLoader} service. Callbacks for components are made on the thread that created the component, which
+ * is not necessarily the injecting thread when parallel injection is enabled. Exceptions thrown by a listener are
+ * logged and do not affect the injection.
+ */
+public interface InjectionListener {
+    default void onPhaseCompleted(InjectionPhase phase, Duration duration) {
+    }
+
+    default void onComponentCreated(ComponentCreation creation) {
+    }
+
+    /**
+     * @param providerType the component that declares the {@link ooo.sansk.vaccine.annotation.Provided} method
+     * @param providedType the type that was provided
+     */
+    default void onProviderInvoked(Class<?> providerType, Class<?> providedType, Duration duration) {
+    }
+
+    default void onAfterCreateCompleted(Class<?> type, String methodName, Duration duration) {
+    }
+
+    /**
+     * Called once all phases completed.
+     *
+     * @param graph a read-only view of the components of the injection and their dependencies
+     */
+    default void onInjectionCompleted(ComponentGraph graph) {
+    }
+}
@@ -0,0 +1,20 @@
+package ooo.sansk.vaccine.listener;
+
+/**
+ * The consecutive phases of {@link ooo.sansk.vaccine.Vaccine#inject}.
+ */
+public enum InjectionPhase {
+    /**
+     * Finding the component classes, either through a component index, the scan cache or the classpath.
+     */
+    SCAN,
+    /**
+     * Extracting the dependencies of components referenced from outside the base package and building the registry.
+     */
+    METADATA,
+    /**
+     * Constructing all components that are not lazy, including their {@link ooo.sansk.vaccine.annotation.AfterCreate}
+     * methods.
+     */
+    INSTANTIATION
+}
@@ -0,0 +1,132 @@
+package ooo.sansk.vaccine.listener;
+
+import ooo.sansk.vaccine.model.ComponentGraph;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Summary of a single injection: phase durations, the slowest components and the critical path.
+ * <p>
+ * The critical path is the chain of dependencies with the highest total construction time, and therefore the lower
+ * bound of the instantiation phase when components are constructed in parallel.
+ */
+public class InjectionReport implements InjectionListener {
+    private static final int DEFAULT_SUMMARY_SIZE = 10;
+
+    private final Map<InjectionPhase, Duration> phaseDurations = Collections.synchronizedMap(new EnumMap<>(InjectionPhase.class));
+    private final Map<Class<?>, ComponentCreation> creations = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Duration> afterCreateDurations = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Duration> providerDurations = new ConcurrentHashMap<>();
+    private volatile List<Class<?>> criticalPath = List.of();
+    private volatile Duration criticalPathDuration = Duration.ZERO;
+    private volatile int depth;
+
+    @Override
+    public void onPhaseCompleted(InjectionPhase phase, Duration duration) {
+        phaseDurations.put(phase, duration);
+    }
+
+    @Override
+    public void onComponentCreated(ComponentCreation creation) {
+        creations.put(creation.type(), creation);
+    }
+
+    @Override
+    public void onProviderInvoked(Class<?> providerType, Class<?> providedType, Duration duration) {
+        providerDurations.merge(providerType, duration, Duration::plus);
+    }
+
+    @Override
+    public void onAfterCreateCompleted(Class<?> type, String methodName, Duration duration) {
+        afterCreateDurations.merge(type, duration, Duration::plus);
+    }
+
+    @Override
+    public void onInjectionCompleted(ComponentGraph graph) {
+        final var path = graph.getCriticalPath(this::getDuration);
+        criticalPath = path.components();
+        criticalPathDuration = path.duration();
+        depth = graph.getMaxDepth() + 1;
+    }
+
+    public Map<InjectionPhase, Duration> getPhaseDurations() {
+        synchronized (phaseDurations) {
+            return Map.copyOf(phaseDurations);
+        }
+    }
+
+    /**
+     * @return the time spent constructing the component, in its {@link ooo.sansk.vaccine.annotation.AfterCreate}
+     * methods and in its {@link ooo.sansk.vaccine.annotation.Provided} methods
+     */
+    public Duration getDuration(Class<?> type) {
+        final var creation = creations.get(type);
+        return (creation == null ? Duration.ZERO : creation.duration())
+                .plus(afterCreateDurations.getOrDefault(type, Duration.ZERO))
+                .plus(providerDurations.getOrDefault(type, Duration.ZERO));
+    }
+
+    /**
+     * @return the components with the highest {@link #getDuration(Class)}, slowest first
+     */
+    public List<Class<?>> getSlowestComponents(int limit) {
+        return creations.keySet().stream()
+                .sorted(Comparator.comparing(this::getDuration).reversed().thenComparing(Class::getName))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return the critical path, starting with the component that was constructed first
+     */
+    public List<Class<?>> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public Duration getCriticalPathDuration() {
+        return criticalPathDuration;
+    }
+
+    /**
+     * @return the length of the longest dependency chain, in components
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the bytes allocated by all constructors, or {@code -1} if the JVM can not measure allocations
+     */
+    public long getAllocatedBytes() {
+        var total = 0L;
+        for (final var creation : creations.values()) {
+            if (creation.allocatedBytes() < 0) {
+                return -1;
+            }
+            total += creation.allocatedBytes();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        final var builder = new StringBuilder("Injection report");
+        getPhaseDurations().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> builder.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue().toMillis()).append(" ms"));
+        builder.append("\n  Components: ").append(creations.size()).append(", depth: ").append(depth)
+                .append(", allocated bytes: ").append(getAllocatedBytes());
+        builder.append("\n  Critical path (").append(criticalPathDuration.toMillis()).append(" ms):");
+        criticalPath.forEach(type -> builder.append("\n    ").append(type.getName()));
+        builder.append("\n  Slowest components:");
+        getSlowestComponents(DEFAULT_SUMMARY_SIZE).forEach(type -> builder.append("\n    ").append(type.getName())
+                .append(": ").append(getDuration(type).toNanos() / 1000).append(" us"));
+        return builder.toString();
+    }
+}
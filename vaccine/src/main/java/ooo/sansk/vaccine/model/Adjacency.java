@@ -0,0 +1,126 @@
+package ooo.sansk.vaccine.model;
+
+import java.util.Arrays;
+
+/**
+ * Edges between densely numbered nodes in compressed sparse row form: the targets of all nodes are stored back to back
+ * in a single array, and node {@code n} owns the range from {@code offsets[n]} to {@code offsets[n + 1]}. Compared to
+ * an array per node this needs two allocations for the whole graph, and walking the edges of consecutive nodes reads
+ * memory sequentially.
+ */
+final class Adjacency {
+    private final int[] offsets;
+    private final int[] targets;
+
+    private Adjacency(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    int size() {
+        return offsets.length - 1;
+    }
+
+    int start(int node) {
+        return offsets[node];
+    }
+
+    int end(int node) {
+        return offsets[node + 1];
+    }
+
+    int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * @param edge an index between {@link #start(int)} and {@link #end(int)} of a node
+     */
+    int target(int edge) {
+        return targets[edge];
+    }
+
+    int[] targets(int node) {
+        return Arrays.copyOfRange(targets, offsets[node], offsets[node + 1]);
+    }
+
+    boolean contains(int node, int target) {
+        for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+            if (targets[edge] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the same edges pointing the other way. The sources of every node are in node order.
+     */
+    Adjacency invert() {
+        final var nodeCount = size();
+        final var invertedOffsets = new int[nodeCount + 1];
+        for (final var target : targets) {
+            invertedOffsets[target + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            invertedOffsets[node + 1] += invertedOffsets[node];
+        }
+        final var cursors = Arrays.copyOf(invertedOffsets, nodeCount);
+        final var sources = new int[targets.length];
+        for (int node = 0; node < nodeCount; node++) {
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                sources[cursors[targets[edge]]++] = node;
+            }
+        }
+        return new Adjacency(invertedOffsets, sources);
+    }
+
+    /**
+     * Collects the edges node by node, in node order.
+     */
+    static final class Builder {
+        private final int[] offsets;
+        // The last node that added an edge to every target, to drop duplicate edges in constant time
+        private final int[] sources;
+        private int[] targets;
+        private int nodeCount;
+        private int edgeCount;
+
+        Builder(int nodeCount) {
+            this.offsets = new int[nodeCount + 1];
+            this.sources = new int[nodeCount];
+            Arrays.fill(sources, -1);
+            this.targets = new int[Math.max(nodeCount, 4)];
+        }
+
+        /**
+         * Adds an edge from the current node, unless it already has an edge to the target.
+         */
+        Builder addTarget(int target) {
+            if (sources[target] == nodeCount) {
+                return this;
+            }
+            sources[target] = nodeCount;
+            if (edgeCount == targets.length) {
+                targets = Arrays.copyOf(targets, targets.length * 2);
+            }
+            targets[edgeCount++] = target;
+            return this;
+        }
+
+        /**
+         * Completes the current node, further targets belong to the next one.
+         */
+        Builder endNode() {
+            offsets[++nodeCount] = edgeCount;
+            return this;
+        }
+
+        Adjacency build() {
+            if (nodeCount != offsets.length - 1) {
+                throw new IllegalStateException("Only " + nodeCount + " of " + (offsets.length - 1) + " nodes were completed");
+            }
+            return new Adjacency(offsets, Arrays.copyOf(targets, edgeCount));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ooo.sansk.vaccine.model;
+
+import java.util.List;
+
+/**
+ * How a single constructor argument of a component is resolved.
+ *
+ * @param kind          where the argument comes from
+ * @param propertyKey   the property key, for {@link Kind#PROPERTY} bindings
+ * @param requestedType the declared type of the constructor parameter, or the provided type for {@link Kind#PROVIDED}
+ *                      elements of a collection
+ * @param target        the component that is injected for {@link Kind#COMPONENT} bindings, or the component that
+ *                      provides the argument for {@link Kind#PROVIDED} bindings
+ * @param elements      the bindings of the elements of {@link Kind#LIST}, {@link Kind#SET} and {@link Kind#MAP}
+ *                      bindings, in scan order
+ */
+public record ArgumentBinding(Kind kind, String propertyKey, Class<?> requestedType, Class<?> target, List<ArgumentBinding> elements) {
+    public enum Kind {
+        PROPERTY,
+        COMPONENT,
+        PROVIDED,
+        LIST,
+        SET,
+        MAP
+    }
+
+    public ArgumentBinding {
+        elements = List.copyOf(elements);
+    }
+
+    public ArgumentBinding(Kind kind, String propertyKey, Class<?> requestedType, Class<?> target) {
+        this(kind, propertyKey, requestedType, target, List.of());
+    }
+
+    public static ArgumentBinding property(String propertyKey, Class<?> requestedType) {
+        return new ArgumentBinding(Kind.PROPERTY, propertyKey, requestedType, null);
+    }
+
+    public static ArgumentBinding component(Class<?> requestedType, Class<?> componentType) {
+        return new ArgumentBinding(Kind.COMPONENT, null, requestedType, componentType);
+    }
+
+    public static ArgumentBinding provided(Class<?> requestedType, Class<?> providerType) {
+        return new ArgumentBinding(Kind.PROVIDED, null, requestedType, providerType);
+    }
+
+    /**
+     * @param kind     {@link Kind#LIST}, {@link Kind#SET} or {@link Kind#MAP}
+     * @param elements {@link Kind#COMPONENT} and {@link Kind#PROVIDED} bindings of the elements
+     */
+    public static ArgumentBinding collection(Kind kind, Class<?> requestedType, List<ArgumentBinding> elements) {
+        if (kind != Kind.LIST && kind != Kind.SET && kind != Kind.MAP) {
+            throw new IllegalArgumentException(kind + " is not a collection binding");
+        }
+        return new ArgumentBinding(kind, null, requestedType, null, elements);
+    }
+
+    public boolean isCollection() {
+        return kind == Kind.LIST || kind == Kind.SET || kind == Kind.MAP;
+    }
+}
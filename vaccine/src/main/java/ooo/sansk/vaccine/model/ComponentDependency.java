@@ -0,0 +1,94 @@
+package ooo.sansk.vaccine.model;
+
+/**
+ * The scanned metadata of a component. Instances are kept by the {@link ComponentRegistry}, not here.
+ * <p>
+ * Most components have no qualified or collection dependencies, so those flags are only kept when one of them is set,
+ * and all components without dependencies or provided types share a single empty array.
+ */
+public final class ComponentDependency {
+    private static final Class<?>[] NO_CLASSES = new Class<?>[0];
+
+    private final Class<?> type;
+    private final Class<?>[] dependencies;
+    // Both null unless at least one dependency is qualified or a collection
+    private final String[] qualifiers;
+    private final boolean[] multiple;
+    private final Class<?>[] providedClasses;
+
+    public ComponentDependency(Class<?> type, Class<?>[] dependencies, Class<?>[] providedClasses) {
+        this.type = type;
+        this.dependencies = compact(dependencies);
+        this.qualifiers = null;
+        this.multiple = null;
+        this.providedClasses = compact(providedClasses);
+    }
+
+    /**
+     * @param qualifiers the {@link ooo.sansk.vaccine.annotation.Named} qualifier of every dependency, {@code null} for
+     *                   unqualified dependencies
+     * @param multiple   whether the dependency is a collection of all components of the dependency type
+     */
+    public ComponentDependency(Class<?> type, Class<?>[] dependencies, String[] qualifiers, boolean[] multiple, Class<?>[] providedClasses) {
+        if (qualifiers.length != dependencies.length || multiple.length != dependencies.length) {
+            throw new IllegalArgumentException("Every dependency of " + type.getName() + " needs a qualifier and a multiplicity");
+        }
+        this.type = type;
+        this.dependencies = compact(dependencies);
+        this.qualifiers = anyQualified(qualifiers) ? qualifiers : null;
+        this.multiple = anyMultiple(multiple) ? multiple : null;
+        this.providedClasses = compact(providedClasses);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the types of the dependencies. For collection dependencies this is the element type.
+     */
+    public Class<?>[] getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return the name of the component the dependency at the given index asks for, or {@code null} if any component
+     * of the dependency type will do
+     */
+    public String getQualifier(int index) {
+        return qualifiers == null ? null : qualifiers[index];
+    }
+
+    /**
+     * @return whether the dependency at the given index is a collection of all components of the dependency type
+     */
+    public boolean isMultiple(int index) {
+        return multiple != null && multiple[index];
+    }
+
+    public Class<?>[] getProvidedClasses() {
+        return providedClasses;
+    }
+
+    private static Class<?>[] compact(Class<?>[] classes) {
+        return classes.length == 0 ? NO_CLASSES : classes;
+    }
+
+    private static boolean anyQualified(String[] qualifiers) {
+        for (final var qualifier : qualifiers) {
+            if (qualifier != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyMultiple(boolean[] multiple) {
+        for (final var flag : multiple) {
+            if (flag) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,359 @@
+package ooo.sansk.vaccine.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-only view of the components in a {@link ComponentRegistry} and the dependencies between them, for analysis.
+ * <p>
+ * Unlike {@link DependencyGraph}, this graph can always be built: dependencies that can not be resolved are left
+ * out, and cycles are reported as {@linkplain #getStronglyConnectedComponents() strongly connected components}
+ * instead of failing. All measures are computed once, on the graph in which every strongly connected component is
+ * collapsed into a single node, so they are defined for cyclic graphs as well and take linear time to compute.
+ */
+public final class ComponentGraph {
+    private final List<Class<?>> types;
+    private final Map<Class<?>, Integer> ids;
+    private final Adjacency dependencies;
+    private final Adjacency dependents;
+    private final List<int[]> stronglyConnectedComponents;
+    private final int[] componentIds;
+    private final int[] depths;
+
+    private ComponentGraph(List<Class<?>> types, Adjacency dependencies) {
+        this.types = types;
+        this.ids = new HashMap<>(types.size() * 2);
+        for (int i = 0; i < types.size(); i++) {
+            ids.putIfAbsent(types.get(i), i);
+        }
+        this.dependencies = dependencies;
+        this.dependents = dependencies.invert();
+        this.stronglyConnectedComponents = DependencyGraph.findStronglyConnectedComponents(dependencies);
+        this.componentIds = new int[types.size()];
+        for (int i = 0; i < stronglyConnectedComponents.size(); i++) {
+            for (final var node : stronglyConnectedComponents.get(i)) {
+                componentIds[node] = i;
+            }
+        }
+        this.depths = computeDepths();
+    }
+
+    /**
+     * @return the graph of the components of the registry itself. Components of a parent registry are not part of it.
+     */
+    public static ComponentGraph of(ComponentRegistry registry) {
+        final var types = registry.getDependencies().stream()
+                .<Class<?>>map(ComponentDependency::getType)
+                .toList();
+        return new ComponentGraph(types, DependencyGraph.resolveEdges(registry, new ArrayList<>()));
+    }
+
+    /**
+     * @return all components, in registry order
+     */
+    public List<Class<?>> getComponents() {
+        return types;
+    }
+
+    /**
+     * @return the components the given component needs before it can be constructed
+     */
+    public List<Class<?>> getDependencies(Class<?> type) {
+        return toTypes(dependencies.targets(id(type)));
+    }
+
+    /**
+     * @return the components that need the given component before they can be constructed
+     */
+    public List<Class<?>> getDependents(Class<?> type) {
+        return toTypes(dependents.targets(id(type)));
+    }
+
+    public int getFanOut(Class<?> type) {
+        return dependencies.degree(id(type));
+    }
+
+    public int getFanIn(Class<?> type) {
+        return dependents.degree(id(type));
+    }
+
+    /**
+     * @return every component the given component needs, directly or indirectly
+     */
+    public Set<Class<?>> getTransitiveDependencies(Class<?> type) {
+        return reach(id(type), dependencies);
+    }
+
+    /**
+     * @return every component that needs the given component, directly or indirectly
+     */
+    public Set<Class<?>> getTransitiveDependents(Class<?> type) {
+        return reach(id(type), dependents);
+    }
+
+    /**
+     * @return the length of the longest chain of dependencies below the component, {@code 0} for a component without
+     * dependencies. The components of a cycle share their depth.
+     */
+    public int getDepth(Class<?> type) {
+        return depths[id(type)];
+    }
+
+    /**
+     * @return the highest depth of all components, or {@code -1} if there are none
+     */
+    public int getMaxDepth() {
+        var maxDepth = -1;
+        for (final var depth : depths) {
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        return maxDepth;
+    }
+
+    /**
+     * @return all components in an order in which every component comes after the components it depends on. The
+     * components of a cycle are next to each other.
+     */
+    public List<Class<?>> getTopologicalOrder() {
+        final var order = new ArrayList<Class<?>>(types.size());
+        for (final var component : stronglyConnectedComponents) {
+            for (final var node : component) {
+                order.add(types.get(node));
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @return the groups of components that depend on each other in a cycle, including components that depend on
+     * themselves. Empty for a graph that can be injected.
+     */
+    public List<List<Class<?>>> getStronglyConnectedComponents() {
+        final var cycles = new ArrayList<List<Class<?>>>();
+        for (final var component : stronglyConnectedComponents) {
+            if (component.length > 1 || dependencies.contains(component[0], component[0])) {
+                cycles.add(toTypes(component));
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * Finds the chain of dependencies with the highest total weight, which bounds the instantiation time when
+     * components are constructed in parallel. A cycle on the path counts with the weight of all its members.
+     *
+     * @param weights the cost of every component, for example the measured construction time of
+     *                {@link ooo.sansk.vaccine.listener.InjectionReport#getDuration(Class)}
+     */
+    public CriticalPath getCriticalPath(Function<Class<?>, Duration> weights) {
+        final var componentCount = stronglyConnectedComponents.size();
+        final var costs = new Duration[componentCount];
+        final var predecessors = new int[componentCount];
+        var last = -1;
+        // Strongly connected components are ordered dependencies first
+        for (int i = 0; i < componentCount; i++) {
+            var cost = Duration.ZERO;
+            var slowest = -1;
+            for (final var node : stronglyConnectedComponents.get(i)) {
+                cost = cost.plus(weights.apply(types.get(node)));
+                for (int edge = dependencies.start(node); edge < dependencies.end(node); edge++) {
+                    final var targetComponent = componentIds[dependencies.target(edge)];
+                    if (targetComponent != i && (slowest < 0 || costs[targetComponent].compareTo(costs[slowest]) > 0)) {
+                        slowest = targetComponent;
+                    }
+                }
+            }
+            predecessors[i] = slowest;
+            costs[i] = slowest < 0 ? cost : cost.plus(costs[slowest]);
+            if (last < 0 || costs[i].compareTo(costs[last]) > 0) {
+                last = i;
+            }
+        }
+
+        final var path = new ArrayList<Class<?>>();
+        for (var current = last; current >= 0; current = predecessors[current]) {
+            final var members = toTypes(stronglyConnectedComponents.get(current));
+            path.addAll(0, members);
+        }
+        return new CriticalPath(List.copyOf(path), last < 0 ? Duration.ZERO : costs[last]);
+    }
+
+    /**
+     * Writes the graph in the DOT language of Graphviz. Edges point from a component to its dependencies, components
+     * that are part of a cycle are drawn in red.
+     */
+    public void writeDot(Appendable output) throws IOException {
+        final var cyclic = getCyclicNodes();
+        output.append("digraph components {\n");
+        output.append("    node [shape=box];\n");
+        for (int i = 0; i < types.size(); i++) {
+            output.append("    ").append(quote(types.get(i).getName()))
+                    .append(" [label=").append(quote(types.get(i).getSimpleName()));
+            if (cyclic[i]) {
+                output.append(", color=red");
+            }
+            output.append("];\n");
+        }
+        for (int i = 0; i < types.size(); i++) {
+            for (int edge = dependencies.start(i); edge < dependencies.end(i); edge++) {
+                output.append("    ").append(quote(types.get(i).getName()))
+                        .append(" -> ").append(quote(types.get(dependencies.target(edge)).getName())).append(";\n");
+            }
+        }
+        output.append("}\n");
+    }
+
+    /**
+     * Writes the graph as a JSON object with a {@code components} array. Every component has its {@code name},
+     * {@code fanIn}, {@code fanOut}, {@code depth}, whether it is {@code cyclic} and the names of its
+     * {@code dependencies}.
+     */
+    public void writeJson(Appendable output) throws IOException {
+        final var cyclic = getCyclicNodes();
+        output.append("{\"components\":[");
+        for (int i = 0; i < types.size(); i++) {
+            if (i > 0) {
+                output.append(',');
+            }
+            output.append("{\"name\":").append(quote(types.get(i).getName()))
+                    .append(",\"fanIn\":").append(String.valueOf(dependents.degree(i)))
+                    .append(",\"fanOut\":").append(String.valueOf(dependencies.degree(i)))
+                    .append(",\"depth\":").append(String.valueOf(depths[i]))
+                    .append(",\"cyclic\":").append(String.valueOf(cyclic[i]))
+                    .append(",\"dependencies\":[");
+            for (int edge = dependencies.start(i); edge < dependencies.end(i); edge++) {
+                if (edge > dependencies.start(i)) {
+                    output.append(',');
+                }
+                output.append(quote(types.get(dependencies.target(edge)).getName()));
+            }
+            output.append("]}");
+        }
+        output.append("]}");
+    }
+
+    public String toDot() {
+        final var builder = new StringBuilder();
+        try {
+            writeDot(builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    public String toJson() {
+        final var builder = new StringBuilder();
+        try {
+            writeJson(builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    private int id(Class<?> type) {
+        final var id = ids.get(type);
+        if (id == null) {
+            throw new IllegalArgumentException(type.getName() + " is not a component of this graph");
+        }
+        return id;
+    }
+
+    private List<Class<?>> toTypes(int[] nodes) {
+        final var list = new ArrayList<Class<?>>(nodes.length);
+        for (final var node : nodes) {
+            list.add(types.get(node));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private Set<Class<?>> reach(int start, Adjacency adjacency) {
+        final var visited = new boolean[types.size()];
+        final var reached = new LinkedHashSet<Class<?>>();
+        final var queue = new ArrayDeque<Integer>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final int node = queue.poll();
+            for (int edge = adjacency.start(node); edge < adjacency.end(node); edge++) {
+                final var target = adjacency.target(edge);
+                if (!visited[target]) {
+                    visited[target] = true;
+                    reached.add(types.get(target));
+                    queue.add(target);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(reached);
+    }
+
+    private int[] computeDepths() {
+        final var componentDepths = new int[stronglyConnectedComponents.size()];
+        for (int i = 0; i < stronglyConnectedComponents.size(); i++) {
+            var depth = 0;
+            for (final var node : stronglyConnectedComponents.get(i)) {
+                for (int edge = dependencies.start(node); edge < dependencies.end(node); edge++) {
+                    final var targetComponent = componentIds[dependencies.target(edge)];
+                    if (targetComponent != i) {
+                        depth = Math.max(depth, componentDepths[targetComponent] + 1);
+                    }
+                }
+            }
+            componentDepths[i] = depth;
+        }
+        final var nodeDepths = new int[types.size()];
+        for (int i = 0; i < nodeDepths.length; i++) {
+            nodeDepths[i] = componentDepths[componentIds[i]];
+        }
+        return nodeDepths;
+    }
+
+    private boolean[] getCyclicNodes() {
+        final var cyclic = new boolean[types.size()];
+        for (final var component : stronglyConnectedComponents) {
+            if (component.length > 1 || dependencies.contains(component[0], component[0])) {
+                for (final var node : component) {
+                    cyclic[node] = true;
+                }
+            }
+        }
+        return cyclic;
+    }
+
+    private static String quote(String value) {
+        final var builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final var character = value.charAt(i);
+            switch (character) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                default -> {
+                    if (character < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        builder.append(character);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * @param components the components on the path, starting with the one that is constructed first
+     * @param duration   the total weight of the components on the path
+     */
+    public record CriticalPath(List<Class<?>> components, Duration duration) {
+    }
+}
@@ -0,0 +1,337 @@
+package ooo.sansk.vaccine.model;
+
+import ooo.sansk.vaccine.annotation.Named;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash-indexed lookup structure for scanned components and the instances created for them.
+ * <p>
+ * The component and provider indices are built once from the scanned {@link ComponentDependency} metadata,
+ * the instance indices are maintained as instances are registered. The type hierarchy of every component and every
+ * provided type is walked once, so finding all components assignable to a type is a single lookup as well. Instances may be
+ * registered concurrently, for example while independent components are constructed in parallel.
+ * <p>
+ * Every component has a dense {@linkplain #getId id}, its position in {@link #getDependencies()}. The indices hold
+ * arrays of ids rather than lists of components, and the instances of components live in a single slot table indexed
+ * by id, so a registry retains a few small arrays per type instead of a collection per type and a map entry per
+ * instance.
+ * <p>
+ * Registering is serialized, lookups never lock. An instance is published to its slot with release semantics, so once a
+ * component is reported as instantiated every lookup finds it.
+ * <p>
+ * A registry can be layered on a parent registry. It only indexes its own components, and falls back to the parent
+ * for every type it has no components or instances of itself, so creating a layer costs only the components it adds.
+ * Its own components take precedence: a component of the same class, or the implementations of an interface, hide
+ * those of the parent.
+ */
+public final class ComponentRegistry {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final ComponentRegistry parent;
+    private final List<ComponentDependency> dependencies;
+    private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+    private final Map<Class<?>, ComponentDependency> providersByProvidedType = new HashMap<>();
+    private final Map<Class<?>, int[]> idsByAssignableType = new HashMap<>();
+    private final Map<Class<?>, List<Provision>> provisionsByAssignableType = new HashMap<>();
+    private final Map<String, int[]> idsByName = new HashMap<>();
+
+    // The instance of every component by id, published with release semantics so lookups never lock
+    private final Object[] slots;
+    // Instances that are not components themselves, such as provided objects
+    private final Map<Class<?>, Object> instancesByType = new ConcurrentHashMap<>();
+
+    public ComponentRegistry(List<ComponentDependency> dependencies) {
+        this(null, dependencies);
+    }
+
+    /**
+     * @param parent       the registry to fall back to, or {@code null}
+     * @param dependencies the components of this layer only
+     */
+    public ComponentRegistry(ComponentRegistry parent, List<ComponentDependency> dependencies) {
+        this.parent = parent;
+        this.dependencies = List.copyOf(dependencies);
+        this.slots = new Object[this.dependencies.size()];
+        final var assignableIds = new HashMap<Class<?>, IdList>();
+        final var nameIds = new HashMap<String, IdList>();
+        for (int id = 0; id < this.dependencies.size(); id++) {
+            final var dependency = this.dependencies.get(id);
+            idsByType.putIfAbsent(dependency.getType(), id);
+            for (final var providedClass : dependency.getProvidedClasses()) {
+                providersByProvidedType.putIfAbsent(providedClass, dependency);
+                final var provision = new Provision(dependency, providedClass);
+                for (final var assignableType : getAssignableTypes(providedClass)) {
+                    provisionsByAssignableType.computeIfAbsent(assignableType, key -> new ArrayList<>(1)).add(provision);
+                }
+            }
+            for (final var assignableType : getAssignableTypes(dependency.getType())) {
+                assignableIds.computeIfAbsent(assignableType, key -> new IdList()).add(id);
+            }
+            nameIds.computeIfAbsent(getName(dependency.getType()), key -> new IdList()).add(id);
+        }
+        assignableIds.forEach((type, ids) -> idsByAssignableType.put(type, ids.toArray()));
+        nameIds.forEach((name, ids) -> idsByName.put(name, ids.toArray()));
+    }
+
+    /**
+     * @return the components of this registry, without those of the parent
+     */
+    public List<ComponentDependency> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return the id of the component of exactly the given type in this registry, or {@code -1} if it is not a
+     * component of this registry
+     */
+    public int getId(Class<?> type) {
+        final var id = idsByType.get(type);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id an id as returned by {@link #getId(Class)}
+     */
+    public ComponentDependency getDependency(int id) {
+        return dependencies.get(id);
+    }
+
+    /**
+     * @return whether the component belongs to a parent registry, and is created there
+     */
+    public boolean isInherited(Class<?> type) {
+        return parent != null && !idsByType.containsKey(type) && parent.getDependency(type).isPresent();
+    }
+
+    public Optional<ComponentDependency> getDependency(Class<?> type) {
+        final var id = idsByType.get(type);
+        if (id == null) {
+            return parent == null ? Optional.empty() : parent.getDependency(type);
+        }
+        return Optional.of(dependencies.get(id));
+    }
+
+    /**
+     * @param providedType the type returned by a {@link ooo.sansk.vaccine.annotation.Provided} method
+     * @return the first scanned component that declares a provider method for the given type
+     */
+    public Optional<ComponentDependency> getProvider(Class<?> providedType) {
+        final var provider = providersByProvidedType.get(providedType);
+        if (provider == null && parent != null) {
+            return parent.getProvider(providedType);
+        }
+        return Optional.ofNullable(provider);
+    }
+
+    /**
+     * @param type any class or interface
+     * @return the scanned component assignable to the given type, if there is exactly one
+     */
+    public Optional<ComponentDependency> getImplementation(Class<?> type) {
+        final var ids = idsByAssignableType.get(type);
+        if (ids == null && parent != null) {
+            return parent.getImplementation(type);
+        }
+        if (ids == null || ids.length != 1) {
+            return Optional.empty();
+        }
+        return Optional.of(dependencies.get(ids[0]));
+    }
+
+    /**
+     * @param type any class or interface
+     * @return all scanned components assignable to the given type, in scan order. The components of the parent come
+     * first, except those this registry declares again.
+     */
+    public List<ComponentDependency> getImplementations(Class<?> type) {
+        final var implementations = toDependencies(idsByAssignableType.get(type));
+        if (parent == null) {
+            return implementations;
+        }
+        final var inherited = parent.getImplementations(type);
+        if (inherited.isEmpty()) {
+            return implementations;
+        }
+        final var all = new ArrayList<ComponentDependency>(inherited.size() + implementations.size());
+        for (final var dependency : inherited) {
+            if (!idsByType.containsKey(dependency.getType())) {
+                all.add(dependency);
+            }
+        }
+        all.addAll(implementations);
+        return all;
+    }
+
+    /**
+     * @param type any class or interface
+     * @return all {@link ooo.sansk.vaccine.annotation.Provided} types assignable to the given type, in scan order,
+     * those of the parent first
+     */
+    public List<Provision> getProvisions(Class<?> type) {
+        final var provisions = provisionsByAssignableType.getOrDefault(type, List.of());
+        if (parent == null) {
+            return provisions;
+        }
+        final var inherited = parent.getProvisions(type);
+        if (inherited.isEmpty()) {
+            return provisions;
+        }
+        final var all = new ArrayList<Provision>(inherited.size() + provisions.size());
+        for (final var provision : inherited) {
+            if (!idsByType.containsKey(provision.provider().getType())) {
+                all.add(provision);
+            }
+        }
+        all.addAll(provisions);
+        return all;
+    }
+
+    /**
+     * @param type any class or interface
+     * @param name a component name as returned by {@link #getName(Class)}
+     * @return the first scanned component with the given name that is assignable to the given type
+     */
+    public Optional<ComponentDependency> getNamedImplementation(Class<?> type, String name) {
+        final var ids = idsByName.get(name);
+        if (ids != null) {
+            for (final var id : ids) {
+                final var dependency = dependencies.get(id);
+                if (type.isAssignableFrom(dependency.getType())) {
+                    return Optional.of(dependency);
+                }
+            }
+        }
+        return parent == null ? Optional.empty() : parent.getNamedImplementation(type, name);
+    }
+
+    /**
+     * @return the value of the {@link Named} annotation of the component, or its class name
+     */
+    public static String getName(Class<?> componentType) {
+        final var named = componentType.getAnnotation(Named.class);
+        return named == null ? componentType.getName() : named.value();
+    }
+
+    public synchronized void register(Object instance) {
+        final var type = instance.getClass();
+        final var id = getId(type);
+        if (id >= 0 ? slots[id] != null : instancesByType.containsKey(type)) {
+            return;
+        }
+        if (id >= 0) {
+            SLOTS.setRelease(slots, id, instance);
+        } else {
+            instancesByType.put(type, instance);
+        }
+    }
+
+    public boolean isInstantiated(Class<?> type) {
+        final var id = idsByType.get(type);
+        if (id != null) {
+            return SLOTS.getAcquire(slots, (int) id) != null;
+        }
+        return instancesByType.containsKey(type) || (parent != null && parent.isInstantiated(type));
+    }
+
+    /**
+     * @param type the exact runtime class of the instance
+     * @return the instance that was registered for exactly the given class, in this registry or, unless this registry
+     * declares the class as a component itself, in the parent
+     */
+    public Optional<Object> getInstance(Class<?> type) {
+        final var id = idsByType.get(type);
+        if (id != null) {
+            return Optional.ofNullable(SLOTS.getAcquire(slots, (int) id));
+        }
+        final var instance = instancesByType.get(type);
+        if (instance == null && parent != null) {
+            return parent.getInstance(type);
+        }
+        return Optional.ofNullable(instance);
+    }
+
+    /**
+     * @return an unmodifiable snapshot of all instances registered in this registry: the instances of components in
+     * id order, followed by the other instances in no particular order
+     */
+    public List<Object> getInstances() {
+        final var instances = new ArrayList<>(slots.length + instancesByType.size());
+        for (int id = 0; id < slots.length; id++) {
+            final var instance = SLOTS.getAcquire(slots, id);
+            if (instance != null) {
+                instances.add(instance);
+            }
+        }
+        instances.addAll(instancesByType.values());
+        return Collections.unmodifiableList(instances);
+    }
+
+    /**
+     * A type returned by a {@link ooo.sansk.vaccine.annotation.Provided} method.
+     *
+     * @param provider     the component that declares the method
+     * @param providedType the return type of the method
+     */
+    public record Provision(ComponentDependency provider, Class<?> providedType) {
+    }
+
+    private List<ComponentDependency> toDependencies(int[] ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        final var list = new ArrayList<ComponentDependency>(ids.length);
+        for (final var id : ids) {
+            list.add(dependencies.get(id));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Growable list of ids, only used while the indices are built.
+     */
+    private static final class IdList {
+        private int[] ids = new int[1];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return size == ids.length ? ids : Arrays.copyOf(ids, size);
+        }
+    }
+
+    private static Set<Class<?>> getAssignableTypes(Class<?> type) {
+        final var assignableTypes = new LinkedHashSet<Class<?>>();
+        final var queue = new ArrayDeque<Class<?>>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            final var current = queue.poll();
+            if (!assignableTypes.add(current)) {
+                continue;
+            }
+            if (current.getSuperclass() != null) {
+                queue.add(current.getSuperclass());
+            }
+            Collections.addAll(queue, current.getInterfaces());
+        }
+        return assignableTypes;
+    }
+}
@@ -0,0 +1,291 @@
+package ooo.sansk.vaccine.model;
+
+import ooo.sansk.vaccine.exception.CircularDependencyException;
+import ooo.sansk.vaccine.exception.UnknownDependencyException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The directed acyclic graph formed by the components in a {@link ComponentRegistry}.
+ * <p>
+ * An edge points from a component to every component it needs before it can be constructed, either directly, as the
+ * provider of one of its constructor parameters, as the only or the named implementation of a parameter's type, or as
+ * an element of an injected collection. Only the components of the registry itself are nodes; dependencies on
+ * components of a parent registry are not edges. Nodes are the {@linkplain ComponentRegistry#getId ids} of the
+ * registry, and the edges are stored in a single {@link Adjacency}.
+ */
+public final class DependencyGraph {
+    private final ComponentRegistry registry;
+    private final Adjacency edges;
+    private final List<List<ComponentDependency>> layers;
+
+    private DependencyGraph(ComponentRegistry registry, Adjacency edges, List<List<ComponentDependency>> layers) {
+        this.registry = registry;
+        this.edges = edges;
+        this.layers = layers;
+    }
+
+    /**
+     * Builds the graph and checks it in a single pass. Every unknown dependency and every cycle is reported: the first
+     * problem is thrown, the others are {@linkplain Throwable#getSuppressed() suppressed} by it.
+     *
+     * @throws UnknownDependencyException  if a component depends on a type that is neither scanned nor provided
+     * @throws CircularDependencyException if the components depend on each other in a cycle
+     */
+    public static DependencyGraph of(ComponentRegistry registry) {
+        final var problems = new ArrayList<RuntimeException>();
+        final var edges = resolveEdges(registry, problems);
+        problems.addAll(findCycles(registry.getDependencies(), edges));
+
+        if (!problems.isEmpty()) {
+            final var first = problems.get(0);
+            problems.subList(1, problems.size()).forEach(first::addSuppressed);
+            throw first;
+        }
+        return new DependencyGraph(registry, edges, computeLayers(registry.getDependencies(), edges));
+    }
+
+    public Set<ComponentDependency> getDependencies(ComponentDependency dependency) {
+        final var id = registry.getId(dependency.getType());
+        if (id < 0) {
+            return Set.of();
+        }
+        final var targets = new LinkedHashSet<ComponentDependency>(edges.degree(id) * 2);
+        for (int edge = edges.start(id); edge < edges.end(id); edge++) {
+            targets.add(registry.getDependency(edges.target(edge)));
+        }
+        return targets;
+    }
+
+    /**
+     * @return the components grouped so that every component only depends on components in earlier layers
+     */
+    public List<List<ComponentDependency>> getLayers() {
+        return layers;
+    }
+
+    /**
+     * @param problems receives an {@link UnknownDependencyException} for every dependency that can not be resolved
+     * @return for every component of the registry, by id, the ids of the components it depends on
+     */
+    static Adjacency resolveEdges(ComponentRegistry registry, List<RuntimeException> problems) {
+        final var dependencies = registry.getDependencies();
+        final var edges = new Adjacency.Builder(dependencies.size());
+        for (int id = 0; id < dependencies.size(); id++) {
+            final var dependency = dependencies.get(id);
+            final var types = dependency.getDependencies();
+            for (int i = 0; i < types.length; i++) {
+                final var type = types[i];
+                final var qualifier = dependency.getQualifier(i);
+                if (dependency.isMultiple(i)) {
+                    // Collections hold every other component of the type, and may be empty
+                    for (final var implementation : registry.getImplementations(type)) {
+                        addEdge(registry, edges, id, implementation);
+                    }
+                    for (final var provision : registry.getProvisions(type)) {
+                        addEdge(registry, edges, id, provision.provider());
+                    }
+                } else if (qualifier != null) {
+                    registry.getNamedImplementation(type, qualifier)
+                            .ifPresentOrElse(target -> addEdge(registry, edges, -1, target), () -> problems.add(new UnknownDependencyException(dependency.getType(), type, qualifier)));
+                } else {
+                    registry.getDependency(type)
+                            .or(() -> registry.getProvider(type))
+                            .or(() -> registry.getImplementation(type))
+                            .ifPresentOrElse(target -> addEdge(registry, edges, -1, target), () -> problems.add(new UnknownDependencyException(dependency.getType(), type)));
+                }
+            }
+            edges.endNode();
+        }
+        return edges.build();
+    }
+
+    /**
+     * @param excluded the id of a component that is left out, or {@code -1}
+     */
+    private static void addEdge(ComponentRegistry registry, Adjacency.Builder edges, int excluded, ComponentDependency target) {
+        // Components of a parent registry have no id here: they are created by the parent, not part of this graph
+        final var targetId = registry.getId(target.getType());
+        if (targetId >= 0 && targetId != excluded) {
+            edges.addTarget(targetId);
+        }
+    }
+
+    private static List<List<ComponentDependency>> computeLayers(List<ComponentDependency> nodes, Adjacency edges) {
+        final var dependents = edges.invert();
+        final var remainingDependencies = new int[nodes.size()];
+        var layer = new int[nodes.size()];
+        var layerSize = 0;
+        for (int node = 0; node < nodes.size(); node++) {
+            remainingDependencies[node] = edges.degree(node);
+            if (remainingDependencies[node] == 0) {
+                layer[layerSize++] = node;
+            }
+        }
+
+        final var layers = new ArrayList<List<ComponentDependency>>();
+        var nextLayer = new int[nodes.size()];
+        var placed = 0;
+        while (layerSize > 0) {
+            final var components = new ComponentDependency[layerSize];
+            var nextLayerSize = 0;
+            for (int i = 0; i < layerSize; i++) {
+                final var node = layer[i];
+                components[i] = nodes.get(node);
+                for (int edge = dependents.start(node); edge < dependents.end(node); edge++) {
+                    final var dependent = dependents.target(edge);
+                    if (--remainingDependencies[dependent] == 0) {
+                        nextLayer[nextLayerSize++] = dependent;
+                    }
+                }
+            }
+            layers.add(List.of(components));
+            placed += layerSize;
+            final var swap = layer;
+            layer = nextLayer;
+            nextLayer = swap;
+            layerSize = nextLayerSize;
+        }
+
+        if (placed != nodes.size()) {
+            throw new IllegalStateException("Only " + placed + " of " + nodes.size() + " components could be ordered");
+        }
+        return List.copyOf(layers);
+    }
+
+    /**
+     * Finds the strongly connected components with Tarjan's algorithm, using an explicit stack so deep graphs do not
+     * overflow the thread's stack. Runs in linear time in the number of components and edges.
+     *
+     * @return the strongly connected components, each sorted by node index, in reverse topological order
+     */
+    static List<int[]> findStronglyConnectedComponents(Adjacency adjacency) {
+        final var nodeCount = adjacency.size();
+        final var index = new int[nodeCount];
+        final var lowLink = new int[nodeCount];
+        final var onStack = new boolean[nodeCount];
+        final var stack = new int[nodeCount];
+        final var callStack = new int[nodeCount];
+        final var edgeCursor = new int[nodeCount];
+        Arrays.fill(index, -1);
+        final var components = new ArrayList<int[]>();
+        var counter = 0;
+        var stackSize = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            var depth = 0;
+            callStack[depth++] = root;
+            index[root] = lowLink[root] = counter++;
+            edgeCursor[root] = adjacency.start(root);
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                final var node = callStack[depth - 1];
+                if (edgeCursor[node] < adjacency.end(node)) {
+                    final var target = adjacency.target(edgeCursor[node]++);
+                    if (index[target] < 0) {
+                        callStack[depth++] = target;
+                        index[target] = lowLink[target] = counter++;
+                        edgeCursor[target] = adjacency.start(target);
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], index[target]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    final var parent = callStack[depth - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+                if (lowLink[node] == index[node]) {
+                    var start = stackSize;
+                    do {
+                        onStack[stack[--start]] = false;
+                    } while (stack[start] != node);
+                    final var component = Arrays.copyOfRange(stack, start, stackSize);
+                    Arrays.sort(component);
+                    components.add(component);
+                    stackSize = start;
+                }
+            }
+        }
+        return components;
+    }
+
+    private static List<CircularDependencyException> findCycles(List<ComponentDependency> nodes, Adjacency adjacency) {
+        final var componentIds = new int[nodes.size()];
+        final var cycles = new ArrayList<int[]>();
+        for (final var component : findStronglyConnectedComponents(adjacency)) {
+            for (final var node : component) {
+                componentIds[node] = cycles.size();
+            }
+            if (component.length > 1 || adjacency.contains(component[0], component[0])) {
+                cycles.add(component);
+            } else {
+                componentIds[component[0]] = -1;
+            }
+        }
+
+        // Reported in scan order, every cycle starting at its first scanned component
+        cycles.sort(Comparator.comparingInt(component -> component[0]));
+        final var exceptions = new ArrayList<CircularDependencyException>(cycles.size());
+        for (final var component : cycles) {
+            final var path = findShortestCycle(adjacency, componentIds, component[0]);
+            final var parents = new ArrayList<Class<?>>(path.length);
+            for (final var node : path) {
+                parents.add(nodes.get(node).getType());
+            }
+            exceptions.add(new CircularDependencyException(parents, nodes.get(component[0]).getType()));
+        }
+        return exceptions;
+    }
+
+    /**
+     * Searches breadth first within the strongly connected component of the start node, which always contains a cycle
+     * back to the start.
+     *
+     * @return the nodes of the shortest cycle, starting with the given node
+     */
+    private static int[] findShortestCycle(Adjacency adjacency, int[] componentIds, int start) {
+        final var predecessors = new int[adjacency.size()];
+        Arrays.fill(predecessors, -1);
+        final var queue = new int[adjacency.size()];
+        var head = 0;
+        var tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            final var node = queue[head++];
+            for (int edge = adjacency.start(node); edge < adjacency.end(node); edge++) {
+                final var target = adjacency.target(edge);
+                if (target == start) {
+                    var length = 1;
+                    for (var current = node; current != start; current = predecessors[current]) {
+                        length++;
+                    }
+                    final var path = new int[length];
+                    for (var current = node; length > 0; current = predecessors[current]) {
+                        path[--length] = current;
+                    }
+                    return path;
+                }
+                if (componentIds[target] == componentIds[start] && predecessors[target] < 0) {
+                    predecessors[target] = node;
+                    queue[tail++] = target;
+                }
+            }
+        }
+        throw new IllegalStateException("No cycle through node " + start);
+    }
+}
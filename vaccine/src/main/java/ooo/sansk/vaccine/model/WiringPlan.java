@@ -0,0 +1,238 @@
+package ooo.sansk.vaccine.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The resolved wiring of an injection: every component in construction order, together with the bindings of its
+ * constructor arguments. Starting from a plan skips scanning and dependency resolution, only the constructors run.
+ * <p>
+ * Plans are written in a compact binary format. All class names and property keys are stored once in a string table
+ * and referenced by index. A plan is only valid for the classes it was created from; constructors whose parameter
+ * count no longer matches are rejected when the plan is used.
+ */
+public final class WiringPlan {
+    private static final int MAGIC = 0x56574E50;
+    private static final int FORMAT_VERSION = 2;
+    private static final int NO_STRING = -1;
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = Map.of(
+            "boolean", boolean.class,
+            "byte", byte.class,
+            "char", char.class,
+            "short", short.class,
+            "int", int.class,
+            "long", long.class,
+            "float", float.class,
+            "double", double.class
+    );
+
+    private final List<Entry> entries;
+
+    public WiringPlan(List<Entry> entries) {
+        this.entries = List.copyOf(entries);
+    }
+
+    /**
+     * @return the components in an order in which every component comes after the components it depends on
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public List<ComponentDependency> getDependencies() {
+        final var dependencies = new ArrayList<ComponentDependency>(entries.size());
+        for (final var entry : entries) {
+            final var multiple = new boolean[entry.multiple().size()];
+            for (int i = 0; i < multiple.length; i++) {
+                multiple[i] = entry.multiple().get(i);
+            }
+            dependencies.add(new ComponentDependency(entry.type(), entry.dependencies().toArray(new Class[0]), entry.qualifiers().toArray(new String[0]), multiple, entry.providedClasses().toArray(new Class[0])));
+        }
+        return dependencies;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        final var strings = new LinkedHashMap<String, Integer>();
+        for (final var entry : entries) {
+            index(strings, entry.type().getName());
+            entry.dependencies().forEach(type -> index(strings, type.getName()));
+            entry.qualifiers().stream().filter(Objects::nonNull).forEach(qualifier -> index(strings, qualifier));
+            entry.providedClasses().forEach(type -> index(strings, type.getName()));
+            entry.arguments().forEach(argument -> index(strings, argument));
+        }
+
+        final var output = new DataOutputStream(outputStream);
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(strings.size());
+        for (final var string : strings.keySet()) {
+            output.writeUTF(string);
+        }
+        output.writeInt(entries.size());
+        for (final var entry : entries) {
+            output.writeInt(strings.get(entry.type().getName()));
+            writeTypes(output, strings, entry.dependencies());
+            for (int i = 0; i < entry.dependencies().size(); i++) {
+                final var qualifier = entry.qualifiers().get(i);
+                output.writeInt(qualifier == null ? NO_STRING : strings.get(qualifier));
+                output.writeBoolean(entry.multiple().get(i));
+            }
+            writeTypes(output, strings, entry.providedClasses());
+            writeArguments(output, strings, entry.arguments());
+        }
+        output.flush();
+    }
+
+    private static void writeArguments(DataOutputStream output, Map<String, Integer> strings, List<ArgumentBinding> arguments) throws IOException {
+        output.writeInt(arguments.size());
+        for (final var argument : arguments) {
+            output.writeByte(argument.kind().ordinal());
+            output.writeInt(strings.get(argument.requestedType().getName()));
+            if (argument.isCollection()) {
+                writeArguments(output, strings, argument.elements());
+            } else {
+                output.writeInt(argument.kind() == ArgumentBinding.Kind.PROPERTY
+                        ? strings.get(argument.propertyKey())
+                        : strings.get(argument.target().getName()));
+            }
+        }
+    }
+
+    /**
+     * @param classLoader the class loader to load the planned classes with. Classes are not initialized.
+     * @throws IOException            if the plan could not be read or is not a wiring plan
+     * @throws ClassNotFoundException if a planned class no longer exists
+     */
+    public static WiringPlan readFrom(InputStream inputStream, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final var input = new DataInputStream(inputStream);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a wiring plan");
+        }
+        final var version = input.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported wiring plan version " + version);
+        }
+        final var strings = new String[input.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readUTF();
+        }
+        final var classes = new Class<?>[strings.length];
+
+        final var entryCount = input.readInt();
+        final var entries = new ArrayList<Entry>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            final var type = loadClass(strings, classes, input.readInt(), classLoader);
+            final var dependencies = readTypes(input, strings, classes, classLoader);
+            final var qualifiers = new ArrayList<String>(dependencies.size());
+            final var multiple = new ArrayList<Boolean>(dependencies.size());
+            for (int j = 0; j < dependencies.size(); j++) {
+                final var qualifier = input.readInt();
+                qualifiers.add(qualifier == NO_STRING ? null : strings[qualifier]);
+                multiple.add(input.readBoolean());
+            }
+            final var providedClasses = readTypes(input, strings, classes, classLoader);
+            final var arguments = readArguments(input, strings, classes, classLoader);
+            entries.add(new Entry(type, dependencies, qualifiers, multiple, providedClasses, arguments));
+        }
+        return new WiringPlan(entries);
+    }
+
+    private static List<ArgumentBinding> readArguments(DataInputStream input, String[] strings, Class<?>[] classes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final var argumentCount = input.readInt();
+        final var arguments = new ArrayList<ArgumentBinding>(argumentCount);
+        for (int i = 0; i < argumentCount; i++) {
+            final var kind = ArgumentBinding.Kind.values()[input.readUnsignedByte()];
+            final var requestedType = loadClass(strings, classes, input.readInt(), classLoader);
+            arguments.add(switch (kind) {
+                case PROPERTY -> ArgumentBinding.property(strings[input.readInt()], requestedType);
+                case COMPONENT -> ArgumentBinding.component(requestedType, loadClass(strings, classes, input.readInt(), classLoader));
+                case PROVIDED -> ArgumentBinding.provided(requestedType, loadClass(strings, classes, input.readInt(), classLoader));
+                case LIST, SET, MAP -> ArgumentBinding.collection(kind, requestedType, readArguments(input, strings, classes, classLoader));
+            });
+        }
+        return arguments;
+    }
+
+    private static void index(Map<String, Integer> strings, ArgumentBinding argument) {
+        index(strings, argument.requestedType().getName());
+        if (argument.propertyKey() != null) {
+            index(strings, argument.propertyKey());
+        }
+        if (argument.target() != null) {
+            index(strings, argument.target().getName());
+        }
+        argument.elements().forEach(element -> index(strings, element));
+    }
+
+    private static void index(Map<String, Integer> strings, String string) {
+        strings.putIfAbsent(string, strings.size());
+    }
+
+    private static void writeTypes(DataOutputStream output, Map<String, Integer> strings, List<Class<?>> types) throws IOException {
+        output.writeInt(types.size());
+        for (final var type : types) {
+            output.writeInt(strings.get(type.getName()));
+        }
+    }
+
+    private static List<Class<?>> readTypes(DataInputStream input, String[] strings, Class<?>[] classes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final var count = input.readInt();
+        final var types = new ArrayList<Class<?>>(count);
+        for (int i = 0; i < count; i++) {
+            types.add(loadClass(strings, classes, input.readInt(), classLoader));
+        }
+        return types;
+    }
+
+    private static Class<?> loadClass(String[] strings, Class<?>[] classes, int index, ClassLoader classLoader) throws ClassNotFoundException {
+        if (classes[index] == null) {
+            final var primitiveType = PRIMITIVE_TYPES.get(strings[index]);
+            classes[index] = primitiveType != null ? primitiveType : Class.forName(strings[index], false, classLoader);
+        }
+        return classes[index];
+    }
+
+    /**
+     * @param qualifiers the {@link ooo.sansk.vaccine.annotation.Named} qualifier of every dependency, {@code null} for
+     *                   unqualified dependencies
+     * @param multiple   whether each dependency is a collection, see {@link ComponentDependency#isMultiple(int)}
+     * @param arguments  the bindings of the constructor arguments, in parameter order
+     */
+    public record Entry(Class<?> type, List<Class<?>> dependencies, List<String> qualifiers, List<Boolean> multiple, List<Class<?>> providedClasses, List<ArgumentBinding> arguments) {
+        public Entry {
+            if (qualifiers.size() != dependencies.size() || multiple.size() != dependencies.size()) {
+                throw new IllegalArgumentException("Every dependency of " + type.getName() + " needs a qualifier and a multiplicity");
+            }
+            dependencies = List.copyOf(dependencies);
+            // Qualifiers may be null, which List.copyOf does not allow
+            qualifiers = Collections.unmodifiableList(new ArrayList<>(qualifiers));
+            multiple = List.copyOf(multiple);
+            providedClasses = List.copyOf(providedClasses);
+            arguments = List.copyOf(arguments);
+        }
+
+        public Entry(Class<?> type, List<Class<?>> dependencies, List<Class<?>> providedClasses, List<ArgumentBinding> arguments) {
+            this(type, dependencies, Collections.nCopies(dependencies.size(), null), Collections.nCopies(dependencies.size(), false), providedClasses, arguments);
+        }
+
+        public static Entry of(ComponentDependency dependency, List<ArgumentBinding> arguments) {
+            final var dependencies = dependency.getDependencies();
+            final var qualifiers = new ArrayList<String>(dependencies.length);
+            final var multiple = new ArrayList<Boolean>(dependencies.length);
+            for (int i = 0; i < dependencies.length; i++) {
+                qualifiers.add(dependency.getQualifier(i));
+                multiple.add(dependency.isMultiple(i));
+            }
+            return new Entry(dependency.getType(), List.of(dependencies), qualifiers, multiple, List.of(dependency.getProvidedClasses()), arguments);
+        }
+    }
+}
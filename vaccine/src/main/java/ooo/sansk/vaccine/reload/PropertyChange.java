@@ -0,0 +1,18 @@
+package ooo.sansk.vaccine.reload;
+
+/**
+ * A single property that was added, changed or removed by a reload.
+ *
+ * @param key      the property key
+ * @param oldValue the value before the reload, or {@code null} if the property was added
+ * @param newValue the value after the reload, or {@code null} if the property was removed
+ */
+public record PropertyChange(String key, String oldValue, String newValue) {
+    public boolean isAdded() {
+        return oldValue == null;
+    }
+
+    public boolean isRemoved() {
+        return newValue == null;
+    }
+}
@@ -0,0 +1,11 @@
+package ooo.sansk.vaccine.reload;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface PropertyChangeListener {
+    /**
+     * @param changes all properties that changed in a single reload, sorted by key. Never empty.
+     */
+    void onPropertiesChanged(List<PropertyChange> changes);
+}
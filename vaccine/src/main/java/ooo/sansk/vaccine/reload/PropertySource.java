@@ -0,0 +1,12 @@
+package ooo.sansk.vaccine.reload;
+
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Loads the current state of the properties, for example from a file, a database or a configuration service.
+ */
+@FunctionalInterface
+public interface PropertySource {
+    Properties load() throws IOException;
+}
@@ -0,0 +1,256 @@
+package ooo.sansk.vaccine.reload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Properties that can change while the application runs.
+ * <p>
+ * Every reload loads the source again and compares it to the previous state. If any property was added, changed or
+ * removed, the listeners receive the difference and the subscribers of the changed keys are called. The source is
+ * reloaded on demand with {@link #reload()}, or automatically once {@link #start()} is called: files are watched with
+ * a {@link WatchService}, other sources are polled.
+ * <p>
+ * A source that fails to load keeps the previous properties, so a file that is being replaced does not remove every
+ * property.
+ */
+public final class ReloadableProperties implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReloadableProperties.class);
+    private static final Duration WATCH_QUIET_PERIOD = Duration.ofMillis(50);
+
+    private final PropertySource source;
+    private final Path file;
+    private final Duration pollInterval;
+    private final List<PropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<PropertyChange>>> subscribers = new ConcurrentHashMap<>();
+    private volatile Properties properties;
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledExecutorService poller;
+
+    private ReloadableProperties(PropertySource source, Path file, Duration pollInterval) throws IOException {
+        this.source = source;
+        this.file = file;
+        this.pollInterval = pollInterval;
+        this.properties = copyOf(source.load());
+    }
+
+    /**
+     * Loads the properties from a file, and reloads them whenever the file is written once {@link #start()} is called.
+     *
+     * @throws IOException if the file could not be read
+     */
+    public static ReloadableProperties watching(Path file) throws IOException {
+        final var absoluteFile = file.toAbsolutePath();
+        return new ReloadableProperties(() -> readFile(absoluteFile), absoluteFile, null);
+    }
+
+    /**
+     * Loads the properties from a source, and loads them again at a fixed interval once {@link #start()} is called.
+     *
+     * @throws IOException if the source could not be loaded
+     */
+    public static ReloadableProperties polling(PropertySource source, Duration interval) throws IOException {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("The poll interval must be positive");
+        }
+        return new ReloadableProperties(source, null, interval);
+    }
+
+    /**
+     * Loads the properties from a source, which is only loaded again when {@link #reload()} is called.
+     *
+     * @throws IOException if the source could not be loaded
+     */
+    public static ReloadableProperties of(PropertySource source) throws IOException {
+        return new ReloadableProperties(source, null, null);
+    }
+
+    /**
+     * @return the properties of the last successful reload. The returned object is never modified; every reload
+     * replaces it.
+     */
+    public Properties getProperties() {
+        return properties;
+    }
+
+    public void addListener(PropertyChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PropertyChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Calls the callback whenever the property with the given key is added, changed or removed.
+     */
+    public void subscribe(String key, Consumer<PropertyChange> callback) {
+        subscribers.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(callback);
+    }
+
+    /**
+     * Loads the source and notifies listeners and subscribers of the difference. Reloads are serialized, so callbacks
+     * never run concurrently with each other.
+     *
+     * @return the changed properties, sorted by key
+     * @throws IOException if the source could not be loaded, the previous properties are kept
+     */
+    public synchronized List<PropertyChange> reload() throws IOException {
+        final var previous = properties;
+        final var current = copyOf(source.load());
+        final var changes = diff(previous, current);
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        properties = current;
+
+        for (final var listener : listeners) {
+            try {
+                listener.onPropertiesChanged(changes);
+            } catch (RuntimeException e) {
+                logger.error("Property change listener {} failed", listener.getClass().getName(), e);
+            }
+        }
+        for (final var change : changes) {
+            for (final var callback : subscribers.getOrDefault(change.key(), List.of())) {
+                try {
+                    callback.accept(change);
+                } catch (RuntimeException e) {
+                    logger.error("Property change callback for {} failed", change.key(), e);
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Starts watching the file or polling the source in the background. Does nothing for sources that can only be
+     * reloaded on demand, or if reloading was already started.
+     *
+     * @throws IOException if the directory of the file could not be watched
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null || poller != null) {
+            return;
+        }
+        if (file != null) {
+            watchService = file.getFileSystem().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            final var service = watchService;
+            watchThread = new Thread(() -> watch(service), "vaccine-property-watcher");
+            watchThread.setDaemon(true);
+            watchThread.start();
+        } else if (pollInterval != null) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final var thread = new Thread(runnable, "vaccine-property-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::reloadInBackground, pollInterval.toNanos(), pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops reloading in the background.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+            watchThread.interrupt();
+            watchThread = null;
+        }
+    }
+
+    /**
+     * @return the added, changed and removed properties, sorted by key
+     */
+    static List<PropertyChange> diff(Properties previous, Properties current) {
+        final var keys = new TreeSet<>(previous.stringPropertyNames());
+        keys.addAll(current.stringPropertyNames());
+        final var changes = new ArrayList<PropertyChange>();
+        for (final var key : keys) {
+            final var oldValue = previous.getProperty(key);
+            final var newValue = current.getProperty(key);
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.add(new PropertyChange(key, oldValue, newValue));
+            }
+        }
+        return List.copyOf(changes);
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                var key = service.take();
+                var changed = false;
+                // Writing a file fires several events, the file is read once they stopped for a moment
+                while (key != null) {
+                    for (final var event : key.pollEvents()) {
+                        // An overflow may have dropped the event for the file
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context());
+                    }
+                    key.reset();
+                    key = service.poll(WATCH_QUIET_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (changed) {
+                    reloadInBackground();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private void reloadInBackground() {
+        try {
+            reload();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not reload properties, keeping the previous values", e);
+        }
+    }
+
+    private static Properties readFile(Path file) throws IOException {
+        final var properties = new Properties();
+        // A missing file fails the reload instead of removing every property, editors often replace files by renaming
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        }
+        return properties;
+    }
+
+    private static Properties copyOf(Properties source) {
+        final var copy = new Properties();
+        for (final var key : source.stringPropertyNames()) {
+            copy.setProperty(key, source.getProperty(key));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,116 @@
+package ooo.sansk.vaccine.scope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of reusable instances. Instances are created when no idle instance is available, until the pool
+ * reaches its size; after that borrowers wait for an instance to be returned.
+ */
+public final class ComponentPool<T> {
+    private final Supplier<T> factory;
+    private final int size;
+    private final BlockingQueue<T> idleInstances;
+    private final AtomicInteger createdInstances = new AtomicInteger();
+
+    public ComponentPool(int size, Supplier<T> factory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be positive, was " + size);
+        }
+        this.factory = factory;
+        this.size = size;
+        this.idleInstances = new ArrayBlockingQueue<>(size);
+    }
+
+    /**
+     * @return a lease of an instance that no other borrower holds. Closing the lease returns the instance.
+     * @throws InterruptedException if the thread was interrupted while waiting for an instance
+     */
+    public Lease<T> borrow() throws InterruptedException {
+        final var idleInstance = idleInstances.poll();
+        if (idleInstance != null) {
+            return new Lease<>(this, idleInstance);
+        }
+        while (true) {
+            final var created = createdInstances.get();
+            if (created >= size) {
+                return new Lease<>(this, idleInstances.take());
+            }
+            if (createdInstances.compareAndSet(created, created + 1)) {
+                try {
+                    return new Lease<>(this, factory.get());
+                } catch (RuntimeException | Error e) {
+                    createdInstances.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of instances created so far
+     */
+    public int getCreatedCount() {
+        return createdInstances.get();
+    }
+
+    public int getIdleCount() {
+        return idleInstances.size();
+    }
+
+    /**
+     * Removes all idle instances from the pool. Borrowed instances are not affected and still return to the pool.
+     *
+     * @return the removed instances
+     */
+    public List<T> drainIdle() {
+        final var drained = new ArrayList<T>();
+        idleInstances.drainTo(drained);
+        return drained;
+    }
+
+    private void giveBack(T instance) {
+        idleInstances.add(instance);
+    }
+
+    /**
+     * Exclusive use of a pooled instance until {@link #close()} is called. Closing a lease more than once has no
+     * effect.
+     */
+    public static final class Lease<T> implements AutoCloseable {
+        private final ComponentPool<T> pool;
+        private final T instance;
+        private boolean returned;
+
+        private Lease(ComponentPool<T> pool, T instance) {
+            this.pool = pool;
+            this.instance = instance;
+        }
+
+        /**
+         * @throws IllegalStateException if the instance was already returned
+         */
+        public T get() {
+            if (returned) {
+                throw new IllegalStateException("The instance was already returned to its pool");
+            }
+            return instance;
+        }
+
+        @Override
+        public void close() {
+            if (!returned) {
+                returned = true;
+                pool.giveBack(instance);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ooo.sansk.vaccine.scope;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decides when a new instance of a {@link ooo.sansk.vaccine.annotation.Scope scoped} component is created.
+ * <p>
+ * Scopes may be called from many threads at once.
+ */
+public interface ComponentScope {
+    /**
+     * @param type    the component class
+     * @param factory creates a new, fully initialized instance of the component
+     * @return the instance of the component that belongs to the current scope
+     */
+    Object get(Class<?> type, Supplier<Object> factory);
+
+    /**
+     * Forgets all instances, called when the container is injected again or closed. Later calls to
+     * {@link #get(Class, Supplier)} create new instances.
+     *
+     * @return the forgotten instances. When the container is closed their
+     * {@link ooo.sansk.vaccine.annotation.BeforeDestroy} methods are called; scopes that do not keep their instances
+     * return nothing.
+     */
+    default Collection<Object> clear() {
+        return List.of();
+    }
+}
@@ -0,0 +1,86 @@
+package ooo.sansk.vaccine.scope;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A scope whose lifetime is controlled by the application, such as a request scope. A context is entered on the
+ * current thread and keeps one instance of every component until it is closed.
+ * <pre>{@code
+ * final var requestScope = new ContextScope();
+ * vaccine.registerScope("request", requestScope);
+ * try (final var context = requestScope.enter()) {
+ *     vaccine.getInjected(RequestHandler.class);
+ * }
+ * }</pre>
+ * Instances end with their context and are never destroyed by the container. When the container is injected again or
+ * closed, contexts that are still active drop the instances they hold.
+ */
+public final class ContextScope implements ComponentScope {
+    private final ThreadLocal<Context> currentContext = new ThreadLocal<>();
+    private volatile int generation;
+
+    /**
+     * @return the entered context, which has to be closed on the same thread
+     * @throws IllegalStateException if a context is already active on the current thread
+     */
+    public Context enter() {
+        if (currentContext.get() != null) {
+            throw new IllegalStateException("A context is already active on this thread");
+        }
+        final var context = new Context();
+        currentContext.set(context);
+        return context;
+    }
+
+    public boolean isActive() {
+        return currentContext.get() != null;
+    }
+
+    /**
+     * @throws IllegalStateException if no context is active on the current thread
+     */
+    @Override
+    public Object get(Class<?> type, Supplier<Object> factory) {
+        final var context = currentContext.get();
+        if (context == null) {
+            throw new IllegalStateException("No context is active for " + type.getName());
+        }
+        // Cleared from another thread, so the context drops its instances on its own thread
+        if (context.generation != generation) {
+            context.instances.clear();
+            context.generation = generation;
+        }
+        final var instance = context.instances.get(type);
+        if (instance != null) {
+            return instance;
+        }
+        final var createdInstance = factory.get();
+        context.instances.put(type, createdInstance);
+        return createdInstance;
+    }
+
+    @Override
+    public synchronized Collection<Object> clear() {
+        generation++;
+        return List.of();
+    }
+
+    public final class Context implements AutoCloseable {
+        private final Map<Class<?>, Object> instances = new HashMap<>();
+        private int generation = ContextScope.this.generation;
+
+        private Context() {
+        }
+
+        @Override
+        public void close() {
+            if (currentContext.get() == this) {
+                currentContext.remove();
+            }
+        }
+    }
+}
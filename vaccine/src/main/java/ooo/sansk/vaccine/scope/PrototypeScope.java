@@ -0,0 +1,10 @@
+package ooo.sansk.vaccine.scope;
+
+import java.util.function.Supplier;
+
+public final class PrototypeScope implements ComponentScope {
+    @Override
+    public Object get(Class<?> type, Supplier<Object> factory) {
+        return factory.get();
+    }
+}
@@ -0,0 +1,45 @@
+package ooo.sansk.vaccine.scope;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Keeps one instance of every component per thread. Instances are kept until the scope is {@linkplain #clear()
+ * cleared}, which happens when the container is injected again or closed.
+ */
+public final class ThreadScope implements ComponentScope {
+    private volatile Instances instances = new Instances();
+
+    @Override
+    public Object get(Class<?> type, Supplier<Object> factory) {
+        final var currentInstances = instances;
+        final var threadInstances = currentInstances.byThread.get();
+        final var instance = threadInstances.get(type);
+        if (instance != null) {
+            return instance;
+        }
+        final var createdInstance = factory.get();
+        threadInstances.put(type, createdInstance);
+        currentInstances.created.add(createdInstance);
+        return createdInstance;
+    }
+
+    /**
+     * Forgets the instances of all threads at once. The maps of the threads are dropped with their thread local.
+     */
+    @Override
+    public Collection<Object> clear() {
+        final var clearedInstances = instances;
+        instances = new Instances();
+        return List.copyOf(clearedInstances.created);
+    }
+
+    private static final class Instances {
+        private final ThreadLocal<Map<Class<?>, Object>> byThread = ThreadLocal.withInitial(HashMap::new);
+        private final Collection<Object> created = new ConcurrentLinkedQueue<>();
+    }
+}
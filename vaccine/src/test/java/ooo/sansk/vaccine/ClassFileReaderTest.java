@@ -0,0 +1,56 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Lazy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassFileReaderTest {
+    private static final String COMPONENT = ClassFileReader.getDescriptor(Component.class);
+
+    @Test
+    void testAnnotatedClassIsDetected() throws IOException {
+        assertTrue(ClassFileReader.isAnnotatedWith(read(AnnotatedComponent.class), COMPONENT));
+        assertTrue(ClassFileReader.isAnnotatedWith(read(AnnotatedComponent.class), ClassFileReader.getDescriptor(Lazy.class)));
+    }
+
+    @Test
+    void testMemberAnnotationsAreIgnored() throws IOException {
+        assertFalse(ClassFileReader.isAnnotatedWith(read(PlainClass.class), COMPONENT));
+        assertFalse(ClassFileReader.isAnnotatedWith(read(ClassFileReaderTest.class), COMPONENT));
+    }
+
+    @Test
+    void testMalformedClassFileIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ClassFileReader.isAnnotatedWith(ByteBuffer.wrap(new byte[]{1, 2, 3}), COMPONENT));
+        assertThrows(IllegalArgumentException.class, () -> ClassFileReader.isAnnotatedWith(ByteBuffer.wrap(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0}), COMPONENT));
+    }
+
+    private static ByteBuffer read(Class<?> clazz) throws IOException {
+        try (final var input = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class")) {
+            return ByteBuffer.wrap(input.readAllBytes());
+        }
+    }
+
+    @Deprecated(since = "1.0", forRemoval = true)
+    @Lazy
+    @Component
+    static class AnnotatedComponent {
+        private static final long ID = 42L;
+        private final double value = 1.5;
+    }
+
+    static class PlainClass {
+        private final Component component = null;
+
+        @Deprecated
+        void method(Component component) {
+        }
+    }
+}
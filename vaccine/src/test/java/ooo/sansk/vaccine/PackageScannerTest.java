@@ -0,0 +1,156 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.annotation.Component;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageScannerTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testChunksAreMergedInOrder() {
+        final var classNames = IntStream.range(0, 1000).mapToObj(i -> "Class" + i).toList();
+
+        final var result = PackageScanner.processInChunks(classNames, chunk -> {
+            if (chunk.get(0).equals("Class0")) {
+                sleep();
+            }
+            return new ArrayList<>(chunk);
+        }, executor).join();
+
+        assertEquals(classNames, result);
+    }
+
+    @Test
+    void testParallelScanMatchesSequentialScan() throws Exception {
+        final var classLoader = getClass().getClassLoader();
+
+        assertEquals(
+                PackageScanner.getClassesForPackage(classLoader, "ooo.sansk.vaccine"),
+                PackageScanner.getClassesForPackage(classLoader, "ooo.sansk.vaccine", executor)
+        );
+    }
+
+    @Test
+    void testAnnotatedClassesAreSelectedFromJar() throws Exception {
+        final var jar = temporaryDirectory.resolve("classes.jar");
+        try (final var output = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (final var directory : List.of("ooo/", "ooo/sansk/", "ooo/sansk/vaccine/")) {
+                output.putNextEntry(new JarEntry(directory));
+            }
+            for (final var clazz : List.of(JarComponent.class, JarHelper.class)) {
+                final var name = clazz.getName().replace('.', '/') + ".class";
+                output.putNextEntry(new JarEntry(name));
+                try (final var input = clazz.getResourceAsStream("/" + name)) {
+                    input.transferTo(output);
+                }
+            }
+        }
+
+        try (final var classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            final var roots = PackageScanner.getPackageRoots(classLoader, "ooo.sansk.vaccine");
+            assertEquals(1, roots.size());
+
+            final var classNames = PackageScanner.getClassNames(roots.get(0), "ooo.sansk.vaccine");
+            assertEquals(List.of(JarComponent.class.getName(), JarHelper.class.getName()), classNames);
+            try (final var packageRoot = PackageRoot.open(roots.get(0), "ooo.sansk.vaccine")) {
+                assertEquals(List.of(JarComponent.class.getName()), PackageScanner.getAnnotatedClassNames(packageRoot, classNames, Component.class));
+            }
+        }
+    }
+
+    @Test
+    void testMultiReleaseJarIsReadAsTheRuntimeSeesIt() throws Exception {
+        final var jar = temporaryDirectory.resolve("multi-release.jar");
+        final var manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MULTI_RELEASE, "true");
+        try (final var output = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            for (final var directory : List.of("ooo/", "ooo/sansk/", "ooo/sansk/vaccine/")) {
+                output.putNextEntry(new JarEntry(directory));
+            }
+            writeClass(output, "", JarHelper.class, JarHelper.class);
+            // A component only from Java 11 on, and a future version that does not apply to this runtime
+            writeClass(output, "META-INF/versions/11/", JarComponent.class, JarComponent.class);
+            writeClass(output, "META-INF/versions/11/", JarHelper.class, JarComponent.class);
+            writeClass(output, "META-INF/versions/" + (Runtime.version().feature() + 1) + "/", FutureHelper.class, FutureHelper.class);
+        }
+
+        try (final var classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            final var root = PackageScanner.getPackageRoots(classLoader, "ooo.sansk.vaccine").get(0);
+
+            final var classNames = PackageScanner.getClassNames(root, "ooo.sansk.vaccine");
+            assertEquals(List.of(JarComponent.class.getName(), JarHelper.class.getName()), classNames);
+            try (final var packageRoot = PackageRoot.open(root, "ooo.sansk.vaccine")) {
+                assertEquals(classNames, PackageScanner.getAnnotatedClassNames(packageRoot, classNames, Component.class));
+            }
+        }
+    }
+
+    @Test
+    void testModulesOfTheRuntimeImageAreScannedByExactPackage() throws Exception {
+        final var classLoader = getClass().getClassLoader();
+
+        final var roots = PackageScanner.getPackageRoots(classLoader, "java.util.logging");
+        assertEquals(1, roots.size());
+        assertEquals("jrt", roots.get(0).getProtocol());
+        assertTrue(PackageScanner.getClassNames(roots.get(0), "java.util.logging").contains(Logger.class.getName()));
+        assertTrue(PackageScanner.getPackageRoots(classLoader, "java.util.log").isEmpty());
+    }
+
+    /**
+     * Writes the class file of the source class as the entry of the target class.
+     */
+    private static void writeClass(JarOutputStream output, String prefix, Class<?> target, Class<?> source) throws IOException {
+        output.putNextEntry(new JarEntry(prefix + target.getName().replace('.', '/') + ".class"));
+        try (final var input = source.getResourceAsStream("/" + source.getName().replace('.', '/') + ".class")) {
+            input.transferTo(output);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Component
+    static class JarComponent {
+    }
+
+    static class JarHelper {
+    }
+
+    static class FutureHelper {
+    }
+}
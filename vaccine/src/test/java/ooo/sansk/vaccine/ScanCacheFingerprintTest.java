@@ -0,0 +1,49 @@
+package ooo.sansk.vaccine;
+
+import ooo.sansk.vaccine.model.ComponentDependency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanCacheFingerprintTest {
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    void testFingerprintChangesWhenClassFilesChange() throws Exception {
+        final var root = Files.createDirectories(temporaryDirectory.resolve("classes/com/example"));
+        Files.write(root.resolve("First.class"), new byte[]{1, 2, 3});
+        final var url = root.toUri().toURL();
+
+        final var original = ScanCache.fingerprint(url).orElseThrow();
+        assertEquals(original, ScanCache.fingerprint(url).orElseThrow());
+
+        Files.write(root.resolve("Second.class"), new byte[]{4});
+        assertNotEquals(original, ScanCache.fingerprint(url).orElseThrow());
+    }
+
+    @Test
+    void testOnlyRootsWithMatchingFingerprintsAreReused() throws Exception {
+        final var cacheDirectory = temporaryDirectory.resolve("cache");
+        final var unchangedRoot = temporaryDirectory.resolve("unchanged").toUri().toURL();
+        final var changedRoot = temporaryDirectory.resolve("changed").toUri().toURL();
+
+        final var cache = ScanCache.load(cacheDirectory, "com.example");
+        cache.put(unchangedRoot, "a", List.of(new ComponentDependency(String.class, new Class[]{int.class}, new Class[]{Integer.class})));
+        cache.put(changedRoot, "b", List.of());
+        cache.save();
+
+        final var reloaded = ScanCache.load(cacheDirectory, "com.example");
+        final var entries = reloaded.get(unchangedRoot, "a").orElseThrow();
+        assertEquals(List.of(new ScanCache.ComponentEntry("java.lang.String", List.of("int"), Collections.singletonList(null), List.of(false), List.of("java.lang.Integer"))), entries);
+        assertTrue(reloaded.get(changedRoot, "c").isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+package ooo.sansk.vaccine.aftercreate;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AfterCreateTest {
+    private static final Properties PROPERTIES = new Properties();
+
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+    }
+
+    @Test
+    void testAfterCreateRunsOncePerComponent() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.aftercreate");
+
+        final var counting = (CountingComponent) vaccine.getInjected(CountingComponent.class).orElseThrow();
+        assertEquals(1, counting.started);
+        assertEquals(1, counting.initialized);
+        assertTrue(counting.dependency.initialized);
+    }
+
+    @Test
+    void testFailingAfterCreateDoesNotStopInjection() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.aftercreate");
+
+        final var failing = (FailingComponent) vaccine.getInjected(FailingComponent.class).orElseThrow();
+        assertTrue(failing.attempted);
+    }
+
+    @Component
+    public static class CountingComponent {
+        private final HiddenDependency dependency;
+        private int started;
+        private int initialized;
+
+        public CountingComponent(HiddenDependency dependency) {
+            this.dependency = dependency;
+        }
+
+        @AfterCreate
+        public void start() {
+            started++;
+        }
+
+        @AfterCreate
+        public void initialize() {
+            initialized++;
+        }
+    }
+
+    @Component
+    private static class HiddenDependency {
+        private boolean initialized;
+
+        public HiddenDependency() {
+        }
+
+        @AfterCreate
+        public void initialize() {
+            initialized = true;
+        }
+    }
+
+    @Component
+    public static class FailingComponent {
+        private boolean attempted;
+
+        @AfterCreate
+        public void fail() {
+            attempted = true;
+            throw new IllegalStateException("Expected failure");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ooo.sansk.vaccine.asyncinit;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.exception.DependencyInstantiationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncInitTest {
+    private static final Properties PROPERTIES = new Properties();
+    private static volatile CompletableFuture<Void> warmUp;
+    private static volatile boolean failing;
+    private static volatile Thread indexThread;
+
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+        warmUp = new CompletableFuture<>();
+        failing = false;
+        indexThread = null;
+    }
+
+    @Test
+    void testReadinessWaitsForAsynchronousInitialization() throws Exception {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.asyncinit");
+
+        final var readiness = vaccine.getReadiness();
+        assertTrue(vaccine.getInjected(Consumer.class).isPresent());
+        assertFalse(readiness.isDone());
+
+        warmUp.complete(null);
+        readiness.get(10, TimeUnit.SECONDS);
+        assertNotEquals(Thread.currentThread(), indexThread);
+    }
+
+    @Test
+    void testReadinessCollectsAllFailures() {
+        failing = true;
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.asyncinit");
+        warmUp.completeExceptionally(new IllegalStateException("Cache unavailable"));
+
+        final var exception = assertThrows(ExecutionException.class, () -> vaccine.getReadiness().get(10, TimeUnit.SECONDS));
+
+        final var failure = assertInstanceOf(DependencyInstantiationException.class, exception.getCause());
+        assertEquals(1, failure.getSuppressed().length);
+        final var causes = new HashSet<Class<?>>();
+        causes.add(failure.getCause().getClass());
+        causes.add(failure.getSuppressed()[0].getCause().getClass());
+        assertEquals(Set.of(IllegalStateException.class, UnsupportedOperationException.class), causes);
+    }
+
+    @Component
+    public static class CacheWarmer {
+        @AfterCreate
+        public CompletionStage<Void> warmUp() {
+            return warmUp;
+        }
+    }
+
+    @Component
+    public static class IndexLoader {
+        @AfterCreate(async = true)
+        public void load() {
+            indexThread = Thread.currentThread();
+            if (failing) {
+                throw new UnsupportedOperationException("Index missing");
+            }
+        }
+    }
+
+    @Component
+    public static class Consumer {
+        public Consumer(CacheWarmer cacheWarmer, IndexLoader indexLoader) {
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ooo.sansk.vaccine.bytecodescanning;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BytecodeScanningTest {
+    private static final Properties PROPERTIES = new Properties();
+    private static final String PACKAGE = "ooo.sansk.vaccine.bytecodescanning";
+
+    private Vaccine vaccine;
+    private RecordingClassLoader classLoader;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+        vaccine.setComponentIndexEnabled(false);
+        classLoader = new RecordingClassLoader(getClass().getClassLoader());
+    }
+
+    @Test
+    void testOnlyComponentsAreLoaded() {
+        vaccine.setBytecodeScanningEnabled(true);
+        vaccine.inject(PROPERTIES, PACKAGE, classLoader);
+
+        assertEquals(2, vaccine.getCandidates().size());
+        assertTrue(classLoader.loadedClasses.contains(RootComponent.class.getName()));
+        assertTrue(classLoader.loadedClasses.contains(LeafComponent.class.getName()));
+        assertFalse(classLoader.loadedClasses.contains(Helper.class.getName()));
+    }
+
+    @Test
+    void testAllClassesAreLoadedWithoutBytecodeScanning() {
+        vaccine.inject(PROPERTIES, PACKAGE, classLoader);
+
+        assertEquals(2, vaccine.getCandidates().size());
+        assertTrue(classLoader.loadedClasses.contains(Helper.class.getName()));
+    }
+
+    @Component
+    public static class RootComponent {
+        public RootComponent(LeafComponent leafComponent) {
+        }
+    }
+
+    @Deprecated(since = "1.0", forRemoval = true)
+    @Component
+    public static class LeafComponent {
+    }
+
+    public static class Helper {
+    }
+
+    /**
+     * Defines the classes of this package itself, so it sees every class the scan loads even if another test loaded
+     * the same class through the application class loader before.
+     */
+    private static final class RecordingClassLoader extends ClassLoader {
+        private final Set<String> loadedClasses = ConcurrentHashMap.newKeySet();
+
+        private RecordingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PACKAGE + ".")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                final var loadedClass = findLoadedClass(name);
+                if (loadedClass != null) {
+                    return loadedClass;
+                }
+                loadedClasses.add(name);
+                try (final var input = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    if (input == null) {
+                        throw new ClassNotFoundException(name);
+                    }
+                    final var bytes = input.readAllBytes();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ooo.sansk.vaccine.componentindex;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.index.ComponentIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentIndexTest {
+    private static final Properties PROPERTIES = new Properties();
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+    }
+
+    @Test
+    void testIndexReplacesScanningOfItsOwnRoot() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.componentindex");
+
+        assertTrue(vaccine.getInjected(IndexedComponent.class).isPresent());
+        // Left out of the index of the test classes on purpose, to show that their directory is not scanned
+        assertFalse(vaccine.getInjected(UnindexedComponent.class).isPresent());
+    }
+
+    @Test
+    void testRootsWithoutIndexAreScanned() throws Exception {
+        final var jar = temporaryDirectory.resolve("unindexed.jar");
+        try (final var output = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (final var directory : List.of("ooo/", "ooo/sansk/", "ooo/sansk/vaccine/", "ooo/sansk/vaccine/componentindex/")) {
+                output.putNextEntry(new JarEntry(directory));
+            }
+            final var name = UnindexedComponent.class.getName().replace('.', '/') + ".class";
+            output.putNextEntry(new JarEntry(name));
+            try (final var input = UnindexedComponent.class.getResourceAsStream("/" + name)) {
+                input.transferTo(output);
+            }
+        }
+
+        try (final var classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, getClass().getClassLoader())) {
+            vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.componentindex", classLoader);
+        }
+
+        assertTrue(vaccine.getInjected(IndexedComponent.class).isPresent());
+        assertTrue(vaccine.getInjected(UnindexedComponent.class).isPresent());
+    }
+
+    @Test
+    void testScanningWhenIndexIsDisabled() {
+        vaccine.setComponentIndexEnabled(false);
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.componentindex");
+
+        assertTrue(vaccine.getInjected(IndexedComponent.class).isPresent());
+        assertTrue(vaccine.getInjected(UnindexedComponent.class).isPresent());
+    }
+
+    public static class TestComponentIndex implements ComponentIndex {
+        @Override
+        public List<String> getComponentClassNames() {
+            return List.of(IndexedComponent.class.getName());
+        }
+    }
+
+    @Component
+    public static class IndexedComponent {
+    }
+
+    @Component
+    public static class UnindexedComponent {
+    }
+}
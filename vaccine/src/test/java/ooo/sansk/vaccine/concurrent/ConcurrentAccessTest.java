@@ -0,0 +1,118 @@
+package ooo.sansk.vaccine.concurrent;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Lazy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentAccessTest {
+    private static final Properties PROPERTIES = new Properties();
+    private static final int THREADS = 16;
+    private static final AtomicInteger SLOW_CREATIONS = new AtomicInteger();
+    private static volatile CountDownLatch initializationStarted;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        SLOW_CREATIONS.set(0);
+        initializationStarted = new CountDownLatch(1);
+        vaccine = new Vaccine();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentRequestsCreateLazyComponentOnce() throws Exception {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.concurrent");
+
+        final var start = new CountDownLatch(1);
+        final var results = new ArrayList<Future<Object>>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return vaccine.getInjected(SlowComponent.class).orElseThrow();
+            }));
+        }
+        start.countDown();
+
+        final var expected = results.get(0).get();
+        for (final var result : results) {
+            assertSame(expected, result.get());
+        }
+        assertEquals(1, SLOW_CREATIONS.get());
+        assertSame(expected, vaccine.getInjected(ConsumerComponent.class).map(component -> ((ConsumerComponent) component).slowComponent).orElseThrow());
+    }
+
+    @Test
+    void testComponentIsNotVisibleBeforeItsAfterCreateMethodsRan() throws Exception {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.concurrent");
+
+        final var creating = executor.submit(() -> vaccine.getInjected(SlowInitializingComponent.class).orElseThrow());
+        assertTrue(initializationStarted.await(5, TimeUnit.SECONDS));
+        final var concurrent = (SlowInitializingComponent) executor.submit(() -> vaccine.getInjected(SlowInitializingComponent.class).orElseThrow()).get();
+
+        assertTrue(concurrent.initialized);
+        assertSame(creating.get(), concurrent);
+    }
+
+    @Test
+    void testCandidatesCanNotBeModified() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.concurrent");
+
+        assertThrows(UnsupportedOperationException.class, () -> vaccine.getCandidates().add(new Object()));
+    }
+
+    @Lazy
+    @Component
+    public static class SlowComponent {
+        public SlowComponent() throws InterruptedException {
+            SLOW_CREATIONS.incrementAndGet();
+            Thread.sleep(20);
+        }
+    }
+
+    @Lazy
+    @Component
+    public static class SlowInitializingComponent {
+        private volatile boolean initialized;
+
+        @AfterCreate
+        public void initialize() throws InterruptedException {
+            initializationStarted.countDown();
+            Thread.sleep(100);
+            initialized = true;
+        }
+    }
+
+    @Lazy
+    @Component
+    public static class ConsumerComponent {
+        private final SlowComponent slowComponent;
+
+        public ConsumerComponent(SlowComponent slowComponent) {
+            this.slowComponent = slowComponent;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ooo.sansk.vaccine.conditional;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.ConditionalOnClass;
+import ooo.sansk.vaccine.annotation.ConditionalOnMissingComponent;
+import ooo.sansk.vaccine.annotation.ConditionalOnProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalTest {
+    private static final AtomicInteger exporterCreations = new AtomicInteger();
+    private static final AtomicInteger remoteStorageCreations = new AtomicInteger();
+
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        exporterCreations.set(0);
+        remoteStorageCreations.set(0);
+        vaccine = new Vaccine();
+    }
+
+    @Test
+    void testInactiveComponentsAndTheirDependentsArePruned() {
+        vaccine.inject(new Properties(), "ooo.sansk.vaccine.conditional");
+
+        assertTrue(vaccine.getInjected(MetricsExporter.class).isEmpty());
+        assertTrue(vaccine.getInjected(MetricsDashboard.class).isEmpty());
+        assertEquals(0, exporterCreations.get());
+    }
+
+    @Test
+    void testPropertyActivatesComponent() {
+        final var properties = new Properties();
+        properties.setProperty("metrics.enabled", "TRUE");
+        vaccine.inject(properties, "ooo.sansk.vaccine.conditional");
+
+        assertTrue(vaccine.getInjected(MetricsDashboard.class).isPresent());
+        assertEquals(1, exporterCreations.get());
+    }
+
+    @Test
+    void testMissingClassDeactivatesComponent() {
+        vaccine.inject(new Properties(), "ooo.sansk.vaccine.conditional");
+
+        final var user = (StorageUser) vaccine.getInjected(StorageUser.class).orElseThrow();
+        assertInstanceOf(FileStorage.class, user.storage());
+        assertTrue(vaccine.getInjected(RemoteStorage.class).isEmpty());
+        assertEquals(0, remoteStorageCreations.get());
+    }
+
+    @Test
+    void testMissingComponentConditionStepsAside() {
+        final var properties = new Properties();
+        properties.setProperty("storage", "memory");
+        vaccine.inject(properties, "ooo.sansk.vaccine.conditional");
+
+        final var user = (StorageUser) vaccine.getInjected(StorageUser.class).orElseThrow();
+        assertInstanceOf(MemoryStorage.class, user.storage());
+        assertTrue(vaccine.getInjected(FileStorage.class).isEmpty());
+    }
+
+    @Test
+    void testDefaultReplacesPrunedAlternative() {
+        vaccine.inject(new Properties(), "ooo.sansk.vaccine.conditional");
+
+        final var user = (StorageUser) vaccine.getInjected(StorageUser.class).orElseThrow();
+        assertInstanceOf(FileStorage.class, user.storage());
+        assertTrue(vaccine.getInjected(ClusterStorage.class).isEmpty());
+    }
+
+    @Test
+    void testActiveAlternativeReplacesDefault() {
+        final var properties = new Properties();
+        properties.setProperty("cluster.enabled", "true");
+        vaccine.inject(properties, "ooo.sansk.vaccine.conditional");
+
+        final var user = (StorageUser) vaccine.getInjected(StorageUser.class).orElseThrow();
+        assertInstanceOf(ClusterStorage.class, user.storage());
+        assertTrue(vaccine.getInjected(FileStorage.class).isEmpty());
+    }
+
+    public interface Storage {
+    }
+
+    @Component
+    @ConditionalOnMissingComponent(Storage.class)
+    public static class FileStorage implements Storage {
+    }
+
+    @Component
+    @ConditionalOnProperty(value = "storage", havingValue = "memory")
+    public static class MemoryStorage implements Storage {
+    }
+
+    @Component
+    @ConditionalOnClass("com.example.remote.RemoteClient")
+    public static class RemoteStorage implements Storage {
+        public RemoteStorage() {
+            remoteStorageCreations.incrementAndGet();
+        }
+    }
+
+    @Component
+    @ConditionalOnProperty("cluster.enabled")
+    public static class ClusterClient {
+    }
+
+    @Component
+    public record ClusterStorage(ClusterClient client) implements Storage {
+    }
+
+    @Component
+    public record StorageUser(Storage storage) {
+    }
+
+    @Component
+    @ConditionalOnProperty("metrics.enabled")
+    public static class MetricsExporter {
+        public MetricsExporter() {
+            exporterCreations.incrementAndGet();
+        }
+    }
+
+    @Component
+    public record MetricsDashboard(MetricsExporter exporter) {
+    }
+}
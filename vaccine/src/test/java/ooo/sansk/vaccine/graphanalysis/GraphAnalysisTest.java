@@ -0,0 +1,111 @@
+package ooo.sansk.vaccine.graphanalysis;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.model.ComponentDependency;
+import ooo.sansk.vaccine.model.ComponentGraph;
+import ooo.sansk.vaccine.model.ComponentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphAnalysisTest {
+    private static final Properties PROPERTIES = new Properties();
+
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+    }
+
+    @Test
+    void testFanInFanOutAndDepth() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.graphanalysis");
+        final var graph = vaccine.getComponentGraph();
+
+        assertEquals(2, graph.getFanIn(Database.class));
+        assertEquals(0, graph.getFanOut(Database.class));
+        assertEquals(2, graph.getFanOut(Service.class));
+        assertEquals(List.of(Repository.class, Database.class), graph.getDependencies(Service.class));
+        assertEquals(List.of(Repository.class, Service.class), graph.getDependents(Database.class));
+        assertEquals(Set.of(Repository.class, Service.class, Controller.class), graph.getTransitiveDependents(Database.class));
+        assertEquals(0, graph.getDepth(Database.class));
+        assertEquals(3, graph.getDepth(Controller.class));
+        assertEquals(3, graph.getMaxDepth());
+        assertEquals(List.of(Database.class, Repository.class, Service.class, Controller.class), graph.getTopologicalOrder());
+        assertTrue(graph.getStronglyConnectedComponents().isEmpty());
+    }
+
+    @Test
+    void testCriticalPathFollowsWeights() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.graphanalysis");
+        final var weights = Map.<Class<?>, Duration>of(Database.class, Duration.ofMillis(10), Repository.class, Duration.ofMillis(5), Service.class, Duration.ofMillis(1), Controller.class, Duration.ofMillis(1));
+
+        final var path = vaccine.getComponentGraph().getCriticalPath(weights::get);
+
+        assertEquals(List.of(Database.class, Repository.class, Service.class, Controller.class), path.components());
+        assertEquals(Duration.ofMillis(17), path.duration());
+    }
+
+    @Test
+    void testCyclesAreReportedAsStronglyConnectedComponents() {
+        final var graph = ComponentGraph.of(new ComponentRegistry(List.of(
+                new ComponentDependency(Controller.class, new Class<?>[]{Service.class}, new Class<?>[0]),
+                new ComponentDependency(Service.class, new Class<?>[]{Repository.class}, new Class<?>[0]),
+                new ComponentDependency(Repository.class, new Class<?>[]{Service.class}, new Class<?>[0])
+        )));
+
+        assertEquals(1, graph.getStronglyConnectedComponents().size());
+        assertEquals(Set.of(Service.class, Repository.class), Set.copyOf(graph.getStronglyConnectedComponents().get(0)));
+        assertEquals(graph.getDepth(Service.class), graph.getDepth(Repository.class));
+        assertEquals(1, graph.getDepth(Controller.class));
+        assertEquals(Controller.class, graph.getTopologicalOrder().get(2));
+        assertEquals(Duration.ofMillis(3), graph.getCriticalPath(type -> Duration.ofMillis(1)).duration());
+    }
+
+    @Test
+    void testExporters() {
+        final var graph = ComponentGraph.of(new ComponentRegistry(List.of(
+                new ComponentDependency(Database.class, new Class<?>[0], new Class<?>[0]),
+                new ComponentDependency(Repository.class, new Class<?>[]{Database.class}, new Class<?>[0])
+        )));
+        final var database = Database.class.getName();
+        final var repository = Repository.class.getName();
+
+        assertEquals("digraph components {\n"
+                + "    node [shape=box];\n"
+                + "    \"" + database + "\" [label=\"Database\"];\n"
+                + "    \"" + repository + "\" [label=\"Repository\"];\n"
+                + "    \"" + repository + "\" -> \"" + database + "\";\n"
+                + "}\n", graph.toDot());
+        assertEquals("{\"components\":["
+                + "{\"name\":\"" + database + "\",\"fanIn\":1,\"fanOut\":0,\"depth\":0,\"cyclic\":false,\"dependencies\":[]},"
+                + "{\"name\":\"" + repository + "\",\"fanIn\":0,\"fanOut\":1,\"depth\":1,\"cyclic\":false,\"dependencies\":[\"" + database + "\"]}"
+                + "]}", graph.toJson());
+    }
+
+    @Component
+    public static class Database {
+    }
+
+    @Component
+    public record Repository(Database database) {
+    }
+
+    @Component
+    public record Service(Repository repository, Database database) {
+    }
+
+    @Component
+    public record Controller(Service service) {
+    }
+}
@@ -0,0 +1,153 @@
+package ooo.sansk.vaccine.hierarchy;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HierarchyTest {
+    private Vaccine parent;
+
+    @BeforeEach
+    void setUp() {
+        final var properties = new Properties();
+        properties.setProperty("region", "eu");
+        properties.setProperty("tenant", "none");
+        parent = new Vaccine();
+        parent.inject(properties, "ooo.sansk.vaccine.hierarchy");
+    }
+
+    @Test
+    void testChildSharesParentSingletons() {
+        final var child = createTenant("first");
+
+        final var service = (TenantService) child.getInjected(TenantService.class).orElseThrow();
+        assertSame(parent.getInjected(SharedRepository.class).orElseThrow(), service.repository());
+        assertSame(parent.getInjected(SharedRepository.class).orElseThrow(), child.getInjected(SharedRepository.class).orElseThrow());
+        assertEquals(List.of(TenantGreeter.class, TenantService.class), child.getCandidates().stream().map(Object::getClass).toList());
+    }
+
+    @Test
+    void testChildComponentsReplaceParentImplementations() {
+        final var child = createTenant("first");
+
+        final var service = (TenantService) child.getInjected(TenantService.class).orElseThrow();
+        assertInstanceOf(TenantGreeter.class, service.greeter());
+        // Shared components keep the wiring of the parent
+        final var controller = (GreetingController) child.getInjected(GreetingController.class).orElseThrow();
+        assertInstanceOf(DefaultGreeter.class, controller.greeter());
+    }
+
+    @Test
+    void testChildPropertiesFallBackToParent() {
+        final var child = createTenant("first");
+
+        final var greeter = (TenantGreeter) child.getInjected(TenantGreeter.class).orElseThrow();
+        assertEquals("first@eu", greeter.greet());
+    }
+
+    @Test
+    void testChildrenAreIndependent() {
+        final var first = createTenant("first");
+        final var second = createTenant("second");
+
+        assertNotSame(first.getInjected(TenantService.class).orElseThrow(), second.getInjected(TenantService.class).orElseThrow());
+        assertEquals("second@eu", ((TenantGreeter) second.getInjected(TenantGreeter.class).orElseThrow()).greet());
+    }
+
+    @Test
+    void testChildPropertyConvertersAreNotShared() {
+        parent.registerPropertyConverter(String.class, String::toUpperCase);
+        final var first = parent.createChild();
+        first.registerPropertyConverter(String.class, value -> "[" + value + "]");
+        injectTenant(first, "first");
+        final var second = createTenant("second");
+
+        assertEquals("[first]@[eu]", ((TenantGreeter) first.getInjected(TenantGreeter.class).orElseThrow()).greet());
+        assertEquals("SECOND@EU", ((TenantGreeter) second.getInjected(TenantGreeter.class).orElseThrow()).greet());
+    }
+
+    private Vaccine createTenant(String tenant) {
+        final var child = parent.createChild();
+        injectTenant(child, tenant);
+        return child;
+    }
+
+    private static void injectTenant(Vaccine child, String tenant) {
+        final var properties = new Properties();
+        properties.setProperty("tenant", tenant);
+        child.inject(properties, List.of(TenantGreeter.class, TenantService.class));
+    }
+
+    public interface Greeter {
+        String greet();
+    }
+
+    @Component
+    public static class DefaultGreeter implements Greeter {
+        @Override
+        public String greet() {
+            return "hello";
+        }
+    }
+
+    @Component
+    public static class GreetingController {
+        private final Greeter greeter;
+
+        public GreetingController(Greeter greeter) {
+            this.greeter = greeter;
+        }
+
+        public Greeter greeter() {
+            return greeter;
+        }
+    }
+
+    @Component
+    public static class SharedRepository {
+    }
+
+    // Components injected explicitly are not scanned, so they do not need the annotation
+    public static class TenantGreeter implements Greeter {
+        private final String tenant;
+        private final String region;
+
+        public TenantGreeter(@Property("tenant") String tenant, @Property("region") String region) {
+            this.tenant = tenant;
+            this.region = region;
+        }
+
+        @Override
+        public String greet() {
+            return tenant + "@" + region;
+        }
+    }
+
+    public static class TenantService {
+        private final SharedRepository repository;
+        private final Greeter greeter;
+
+        public TenantService(SharedRepository repository, Greeter greeter) {
+            this.repository = repository;
+            this.greeter = greeter;
+        }
+
+        public SharedRepository repository() {
+            return repository;
+        }
+
+        public Greeter greeter() {
+            return greeter;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package ooo.sansk.vaccine.hotreload;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.OnPropertyChange;
+import ooo.sansk.vaccine.annotation.Property;
+import ooo.sansk.vaccine.reload.PropertyChange;
+import ooo.sansk.vaccine.reload.ReloadableProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotReloadTest {
+    private Vaccine vaccine;
+    private Properties source;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+        source = new Properties();
+        source.setProperty("pool.size", "4");
+        source.setProperty("batch.size", "100");
+        source.setProperty("cache.limit", "1000");
+    }
+
+    @Test
+    void testDiff() throws IOException {
+        final var properties = ReloadableProperties.of(this::copyOfSource);
+        source.setProperty("pool.size", "8");
+        source.remove("batch.size");
+        source.setProperty("queue.capacity", "16");
+
+        final var changes = properties.reload();
+
+        assertEquals(List.of(
+                new PropertyChange("batch.size", "100", null),
+                new PropertyChange("pool.size", "4", "8"),
+                new PropertyChange("queue.capacity", null, "16")
+        ), changes);
+        assertEquals(List.of(), properties.reload());
+        assertEquals("8", properties.getProperties().getProperty("pool.size"));
+    }
+
+    @Test
+    void testNotifiesSubscribedComponents() throws IOException {
+        final var properties = ReloadableProperties.of(this::copyOfSource);
+        vaccine.inject(properties, "ooo.sansk.vaccine.hotreload");
+        final var worker = (Worker) vaccine.getInjected(Worker.class).orElseThrow();
+        assertEquals(4, worker.poolSize);
+
+        source.setProperty("pool.size", "8");
+        source.setProperty("batch.size", "250");
+        source.remove("cache.limit");
+        properties.reload();
+
+        assertEquals(8, worker.poolSize);
+        assertEquals(List.of(new PropertyChange("batch.size", "100", "250")), worker.batchChanges);
+        assertEquals(1, worker.cacheLimitChanges);
+        assertNull(worker.cacheLimit);
+        assertEquals(0, worker.unrelatedChanges);
+    }
+
+    @Test
+    void testSubscribeCallback() throws IOException {
+        final var properties = ReloadableProperties.of(this::copyOfSource);
+        final var changes = new ArrayList<PropertyChange>();
+        properties.subscribe("batch.size", changes::add);
+
+        source.setProperty("pool.size", "8");
+        properties.reload();
+        source.setProperty("batch.size", "50");
+        properties.reload();
+
+        assertEquals(List.of(new PropertyChange("batch.size", "100", "50")), changes);
+    }
+
+    @Test
+    void testWatchesFile(@TempDir Path directory) throws IOException, InterruptedException {
+        final var file = directory.resolve("application.properties");
+        write(file, source);
+        try (final var properties = ReloadableProperties.watching(file)) {
+            final var reloaded = new CountDownLatch(1);
+            properties.subscribe("pool.size", change -> {
+                if ("12".equals(change.newValue())) {
+                    reloaded.countDown();
+                }
+            });
+            properties.start();
+
+            source.setProperty("pool.size", "12");
+            write(file, source);
+
+            assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+            assertEquals("12", properties.getProperties().getProperty("pool.size"));
+        }
+    }
+
+    @Test
+    void testPollsSource() throws IOException, InterruptedException {
+        try (final var properties = ReloadableProperties.polling(this::copyOfSource, Duration.ofMillis(10))) {
+            final var reloaded = new CountDownLatch(1);
+            properties.subscribe("pool.size", change -> reloaded.countDown());
+            properties.start();
+
+            synchronized (source) {
+                source.setProperty("pool.size", "12");
+            }
+
+            assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+        }
+    }
+
+    private Properties copyOfSource() {
+        synchronized (source) {
+            final var copy = new Properties();
+            copy.putAll(source);
+            return copy;
+        }
+    }
+
+    private static void write(Path file, Properties properties) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, null);
+        }
+    }
+
+    @Component
+    public static class Worker {
+        private volatile int poolSize;
+        private volatile Integer cacheLimit;
+        private final List<PropertyChange> batchChanges = new ArrayList<>();
+        private int cacheLimitChanges;
+        private int unrelatedChanges;
+
+        public Worker(@Property("pool.size") int poolSize, @Property("cache.limit") Integer cacheLimit) {
+            this.poolSize = poolSize;
+            this.cacheLimit = cacheLimit;
+        }
+
+        @OnPropertyChange("pool.size")
+        public void resize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        @OnPropertyChange("batch.size")
+        public void batchSizeChanged(PropertyChange change) {
+            batchChanges.add(change);
+        }
+
+        @OnPropertyChange("cache.limit")
+        public void cacheLimitChanged(Integer cacheLimit) {
+            this.cacheLimit = cacheLimit;
+            cacheLimitChanges++;
+        }
+
+        @OnPropertyChange("unrelated")
+        public void unrelatedChanged() {
+            unrelatedChanges++;
+        }
+    }
+}
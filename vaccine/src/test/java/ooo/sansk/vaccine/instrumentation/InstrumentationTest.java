@@ -0,0 +1,161 @@
+package ooo.sansk.vaccine.instrumentation;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordingFile;
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Provided;
+import ooo.sansk.vaccine.listener.ComponentCreation;
+import ooo.sansk.vaccine.listener.InjectionListener;
+import ooo.sansk.vaccine.listener.InjectionPhase;
+import ooo.sansk.vaccine.listener.InjectionReport;
+import ooo.sansk.vaccine.model.ComponentGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstrumentationTest {
+    private static final Properties PROPERTIES = new Properties();
+
+    private Vaccine vaccine;
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+    }
+
+    @Test
+    void testListenerReceivesAllMeasurements() {
+        final var listener = new RecordingListener();
+        vaccine.addInjectionListener(listener);
+
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.instrumentation");
+
+        assertEquals(List.of(InjectionPhase.SCAN, InjectionPhase.METADATA, InjectionPhase.INSTANTIATION), listener.phases);
+        assertEquals(List.of(SlowComponent.class, ConfigurationComponent.class, RootComponent.class), listener.creations.stream().map(ComponentCreation::type).toList());
+        assertEquals(List.of(1, 0, 0), listener.creations.stream().map(ComponentCreation::depth).toList());
+        assertEquals(List.of(Connection.class), listener.providedTypes);
+        assertEquals(List.of("warmUp"), listener.afterCreateMethods);
+        assertEquals(1, listener.completions);
+    }
+
+    @Test
+    void testReportFindsCriticalPathAndSlowestComponent() {
+        final var report = new InjectionReport();
+        vaccine.addInjectionListener(report);
+
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.instrumentation");
+
+        assertEquals(List.of(SlowComponent.class, ConfigurationComponent.class, RootComponent.class), report.getCriticalPath());
+        assertEquals(SlowComponent.class, report.getSlowestComponents(1).get(0));
+        assertEquals(3, report.getDepth());
+        assertTrue(report.getDuration(SlowComponent.class).compareTo(Duration.ofMillis(20)) >= 0);
+        assertTrue(report.getCriticalPathDuration().compareTo(report.getDuration(SlowComponent.class)) >= 0);
+        assertTrue(report.toString().contains(SlowComponent.class.getName()));
+    }
+
+    @Test
+    void testJfrEventsAreEmitted() throws Exception {
+        final var file = temporaryDirectory.resolve("injection.jfr");
+        try (final var recording = new Recording()) {
+            recording.enable("ooo.sansk.vaccine.ComponentCreation").withoutThreshold();
+            recording.enable("ooo.sansk.vaccine.InjectionPhase").withoutThreshold();
+            recording.start();
+            vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.instrumentation");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final var components = new ArrayList<String>();
+        var phases = 0;
+        for (final var event : RecordingFile.readAllEvents(file)) {
+            switch (event.getEventType().getName()) {
+                case "ooo.sansk.vaccine.ComponentCreation" -> components.add(event.<RecordedClass>getValue("componentClass").getName());
+                case "ooo.sansk.vaccine.InjectionPhase" -> phases++;
+                default -> {
+                }
+            }
+        }
+        assertEquals(List.of(SlowComponent.class.getName(), ConfigurationComponent.class.getName(), RootComponent.class.getName()), components);
+        assertEquals(3, phases);
+    }
+
+    private static class RecordingListener implements InjectionListener {
+        private final List<InjectionPhase> phases = new CopyOnWriteArrayList<>();
+        private final List<ComponentCreation> creations = new CopyOnWriteArrayList<>();
+        private final List<Class<?>> providedTypes = new CopyOnWriteArrayList<>();
+        private final List<String> afterCreateMethods = new CopyOnWriteArrayList<>();
+        private int completions;
+
+        @Override
+        public void onPhaseCompleted(InjectionPhase phase, Duration duration) {
+            phases.add(phase);
+        }
+
+        @Override
+        public void onComponentCreated(ComponentCreation creation) {
+            creations.add(creation);
+        }
+
+        @Override
+        public void onProviderInvoked(Class<?> providerType, Class<?> providedType, Duration duration) {
+            providedTypes.add(providedType);
+        }
+
+        @Override
+        public void onAfterCreateCompleted(Class<?> type, String methodName, Duration duration) {
+            afterCreateMethods.add(methodName);
+        }
+
+        @Override
+        public void onInjectionCompleted(ComponentGraph graph) {
+            completions++;
+        }
+    }
+
+    public static class Connection {
+    }
+
+    @Component
+    public static class RootComponent {
+        public RootComponent(ConfigurationComponent configurationComponent, Connection connection) {
+        }
+    }
+
+    @Component
+    public static class ConfigurationComponent {
+        public ConfigurationComponent(SlowComponent slowComponent) {
+        }
+
+        @Provided
+        public Connection connection() {
+            return new Connection();
+        }
+    }
+
+    @Component
+    public static class SlowComponent {
+        public SlowComponent() throws InterruptedException {
+            Thread.sleep(20);
+        }
+
+        @AfterCreate
+        public void warmUp() {
+        }
+    }
+}
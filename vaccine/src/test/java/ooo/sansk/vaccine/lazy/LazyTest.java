@@ -0,0 +1,108 @@
+package ooo.sansk.vaccine.lazy;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Lazy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyTest {
+    private static final Properties PROPERTIES = new Properties();
+    private static final AtomicInteger EXPENSIVE_CREATIONS = new AtomicInteger();
+    private static final AtomicInteger EXPENSIVE_WARM_UPS = new AtomicInteger();
+    private static final AtomicInteger SERVICE_CREATIONS = new AtomicInteger();
+
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        EXPENSIVE_CREATIONS.set(0);
+        EXPENSIVE_WARM_UPS.set(0);
+        SERVICE_CREATIONS.set(0);
+        vaccine = new Vaccine();
+    }
+
+    @Test
+    void testLazyComponentIsCreatedOnFirstRequest() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.lazy");
+
+        assertEquals(0, EXPENSIVE_CREATIONS.get());
+        assertFalse(vaccine.getCandidates().stream().anyMatch(ExpensiveComponent.class::isInstance));
+
+        final var expensive = vaccine.getInjected(ExpensiveComponent.class).orElseThrow();
+        assertSame(expensive, vaccine.getInjected(ExpensiveComponent.class).orElseThrow());
+        assertEquals(1, EXPENSIVE_CREATIONS.get());
+        assertEquals(1, EXPENSIVE_WARM_UPS.get());
+    }
+
+    @Test
+    void testInterfaceDependencyOnLazyComponentIsProxied() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.lazy");
+
+        final var consumer = (EagerConsumer) vaccine.getInjected(EagerConsumer.class).orElseThrow();
+        assertTrue(Proxy.isProxyClass(consumer.service().getClass()));
+        assertEquals(0, SERVICE_CREATIONS.get());
+
+        assertEquals("lazy", consumer.service().value());
+        assertEquals("lazy", consumer.service().value());
+        assertEquals(1, SERVICE_CREATIONS.get());
+        assertTrue(vaccine.getInjected(LazyService.class).isPresent());
+    }
+
+    @Test
+    void testGlobalLazyMode() {
+        vaccine.setLazy(true);
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.lazy");
+
+        assertTrue(vaccine.getCandidates().isEmpty());
+
+        final var consumer = (EagerConsumer) vaccine.getInjected(EagerConsumer.class).orElseThrow();
+        assertTrue(Proxy.isProxyClass(consumer.service().getClass()));
+        assertEquals(0, EXPENSIVE_CREATIONS.get());
+        assertEquals(0, SERVICE_CREATIONS.get());
+    }
+
+    public interface Service {
+        String value();
+    }
+
+    @Lazy
+    @Component
+    public static class LazyService implements Service {
+        public LazyService() {
+            SERVICE_CREATIONS.incrementAndGet();
+        }
+
+        @Override
+        public String value() {
+            return "lazy";
+        }
+    }
+
+    @Component
+    public record EagerConsumer(Service service) {
+    }
+
+    @Lazy
+    @Component
+    public static class ExpensiveComponent {
+        public ExpensiveComponent() {
+            EXPENSIVE_CREATIONS.incrementAndGet();
+        }
+
+        @AfterCreate
+        public void warmUp() {
+            EXPENSIVE_WARM_UPS.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ooo.sansk.vaccine.multibinding;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Named;
+import ooo.sansk.vaccine.annotation.Provided;
+import ooo.sansk.vaccine.model.WiringPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiBindingTest {
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+        vaccine.inject(new Properties(), "ooo.sansk.vaccine.multibinding");
+    }
+
+    @Test
+    void testListContainsAllImplementationsAndProvidedObjects() {
+        final var registry = (HandlerRegistry) vaccine.getInjected(HandlerRegistry.class).orElseThrow();
+
+        assertEquals(List.of("csv", "json", "xml"), registry.handlers().stream().map(Handler::format).toList());
+        assertSame(vaccine.getInjected(CsvHandler.class).orElseThrow(), registry.handlers().get(0));
+        assertThrows(UnsupportedOperationException.class, () -> registry.handlersByName().clear());
+    }
+
+    @Test
+    void testSetAndMapAreKeyedByName() {
+        final var registry = (HandlerRegistry) vaccine.getInjected(HandlerRegistry.class).orElseThrow();
+
+        assertEquals(3, registry.handlerSet().size());
+        assertEquals(Set.of("csv", HandlerChain.class.getName(), JsonHandler.class.getName(), XmlHandler.class.getName()), registry.handlersByName().keySet());
+        assertInstanceOf(CsvHandler.class, registry.handlersByName().get("csv"));
+    }
+
+    @Test
+    void testNamedParameterSelectsImplementation() {
+        final var registry = (HandlerRegistry) vaccine.getInjected(HandlerRegistry.class).orElseThrow();
+
+        assertInstanceOf(CsvHandler.class, registry.defaultHandler());
+    }
+
+    @Test
+    void testComponentIsNotPartOfItsOwnCollection() {
+        final var chain = (HandlerChain) vaccine.getInjected(HandlerChain.class).orElseThrow();
+
+        assertEquals(3, chain.others().size());
+        assertTrue(chain.others().stream().noneMatch(HandlerChain.class::isInstance));
+    }
+
+    @Test
+    void testProvidedObjectsOfTheSameTypeComeFromEveryProvider() {
+        final var codecs = (CodecRegistry) vaccine.getInjected(CodecRegistry.class).orElseThrow();
+
+        assertEquals(List.of("gzip", "zstd"), codecs.codecs().stream().map(Codec::name).toList());
+        assertNotSame(codecs.codecs().get(0), codecs.codecs().get(1));
+        assertEquals(2, codecs.codecSet().size());
+    }
+
+    @Test
+    void testRestoredPlanKeepsCollections() throws Exception {
+        final var plan = vaccine.createWiringPlan();
+        final var output = new ByteArrayOutputStream();
+        plan.writeTo(output);
+        final var restoredPlan = WiringPlan.readFrom(new ByteArrayInputStream(output.toByteArray()), getClass().getClassLoader());
+        assertEquals(plan.getEntries(), restoredPlan.getEntries());
+
+        final var restored = new Vaccine();
+        restored.inject(new Properties(), restoredPlan);
+        final var registry = (HandlerRegistry) restored.getInjected(HandlerRegistry.class).orElseThrow();
+        assertEquals(List.of("csv", "json", "xml"), registry.handlers().stream().map(Handler::format).toList());
+    }
+
+    public interface Handler {
+        String format();
+    }
+
+    public record Codec(String name) {
+    }
+
+    @Component
+    public record CodecRegistry(List<Codec> codecs, Set<Codec> codecSet) {
+    }
+
+    @Component
+    public static class GzipCodecProvider {
+        @Provided
+        public Codec codec() {
+            return new Codec("gzip");
+        }
+    }
+
+    @Component
+    public static class ZstdCodecProvider {
+        @Provided
+        public Codec codec() {
+            return new Codec("zstd");
+        }
+    }
+
+    public static class XmlHandler implements Handler {
+        @Override
+        public String format() {
+            return "xml";
+        }
+    }
+
+    @Component
+    @Named("csv")
+    public static class CsvHandler implements Handler {
+        @Override
+        public String format() {
+            return "csv";
+        }
+    }
+
+    @Component
+    public static class HandlerChain implements Handler {
+        private final List<Handler> others;
+
+        public HandlerChain(List<Handler> others) {
+            this.others = others;
+        }
+
+        public List<Handler> others() {
+            return others;
+        }
+
+        @Override
+        public String format() {
+            return others.get(0).format();
+        }
+    }
+
+    @Component
+    public static class HandlerRegistry {
+        private final List<? extends Handler> handlers;
+        private final Set<Handler> handlerSet;
+        private final Map<String, Handler> handlersByName;
+        private final Handler defaultHandler;
+
+        public HandlerRegistry(List<? extends Handler> handlers, Set<Handler> handlerSet, Map<String, Handler> handlersByName, @Named("csv") Handler defaultHandler) {
+            this.handlers = handlers.stream().filter(handler -> !(handler instanceof HandlerChain)).toList();
+            this.handlerSet = Set.copyOf(handlerSet.stream().filter(handler -> !(handler instanceof HandlerChain)).toList());
+            this.handlersByName = handlersByName;
+            this.defaultHandler = defaultHandler;
+        }
+
+        public List<? extends Handler> handlers() {
+            return handlers;
+        }
+
+        public Set<Handler> handlerSet() {
+            return handlerSet;
+        }
+
+        public Map<String, Handler> handlersByName() {
+            return handlersByName;
+        }
+
+        public Handler defaultHandler() {
+            return defaultHandler;
+        }
+    }
+
+    @Component
+    public static class JsonHandler implements Handler {
+        @Override
+        public String format() {
+            return "json";
+        }
+
+        @Provided
+        public XmlHandler xmlHandler() {
+            return new XmlHandler();
+        }
+    }
+}
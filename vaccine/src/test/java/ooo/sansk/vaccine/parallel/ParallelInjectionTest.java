@@ -0,0 +1,110 @@
+package ooo.sansk.vaccine.parallel;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Provided;
+import ooo.sansk.vaccine.exception.CircularDependencyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelInjectionTest {
+    private static final Properties PROPERTIES = new Properties();
+    private static final CyclicBarrier WARM_UP_BARRIER = new CyclicBarrier(3);
+    // The container only logs exceptions of @AfterCreate methods, so the warm ups record that they got through
+    private static final AtomicInteger COMPLETED_WARM_UPS = new AtomicInteger();
+
+    private ExecutorService executor;
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        WARM_UP_BARRIER.reset();
+        COMPLETED_WARM_UPS.set(0);
+        executor = Executors.newFixedThreadPool(3);
+        vaccine = new Vaccine();
+        vaccine.setExecutor(executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testIndependentComponentsWarmUpConcurrently() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.parallel");
+
+        assertEquals(3, COMPLETED_WARM_UPS.get());
+        final var top = (Top) vaccine.getInjected(Top.class).orElseThrow();
+        assertSame(vaccine.getInjected(WarmUpA.class).orElseThrow(), top.warmUpA());
+        assertSame(vaccine.getInjected(WarmUpB.class).orElseThrow(), top.warmUpB());
+        assertSame(vaccine.getInjected(WarmUpC.class).orElseThrow(), top.warmUpC());
+        assertSame(top.warmUpA().shared(), top.warmUpB().shared());
+        assertSame(top.warmUpA().sharedProvided(), top.warmUpB().sharedProvided());
+        assertEquals(6, vaccine.getCandidates().size());
+    }
+
+    @Test
+    void testCircularDependenciesAreDetected() {
+        assertThrows(CircularDependencyException.class, () -> vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.circularsimple"));
+    }
+
+    private static void awaitOtherWarmUps() throws InterruptedException, BrokenBarrierException, TimeoutException {
+        WARM_UP_BARRIER.await(5, TimeUnit.SECONDS);
+        COMPLETED_WARM_UPS.incrementAndGet();
+    }
+
+    @Component
+    public record Top(WarmUpA warmUpA, WarmUpB warmUpB, WarmUpC warmUpC) {
+    }
+
+    @Component
+    public record WarmUpA(Shared shared, SharedProvided sharedProvided) {
+        @AfterCreate
+        public void warmUp() throws Exception {
+            awaitOtherWarmUps();
+        }
+    }
+
+    @Component
+    public record WarmUpB(Shared shared, SharedProvided sharedProvided) {
+        @AfterCreate
+        public void warmUp() throws Exception {
+            awaitOtherWarmUps();
+        }
+    }
+
+    @Component
+    public record WarmUpC(Shared shared) {
+        @AfterCreate
+        public void warmUp() throws Exception {
+            awaitOtherWarmUps();
+        }
+    }
+
+    @Component
+    public static class Shared {
+        @Provided
+        public SharedProvided sharedProvided() {
+            return new SharedProvided();
+        }
+    }
+
+    public static class SharedProvided {
+    }
+}
@@ -0,0 +1,141 @@
+package ooo.sansk.vaccine.providercaching;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Property;
+import ooo.sansk.vaccine.annotation.Provided;
+import ooo.sansk.vaccine.annotation.Scope;
+import ooo.sansk.vaccine.reload.ReloadableProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ProviderCachingTest {
+    private final Properties source = new Properties();
+    private ReloadableProperties properties;
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        source.setProperty("endpoint.url", "https://first.example");
+        properties = ReloadableProperties.of(() -> source);
+        vaccine = new Vaccine();
+        vaccine.inject(properties, "ooo.sansk.vaccine.providercaching");
+    }
+
+    @Test
+    void testSingletonProviderIsCalledOnce() {
+        final var first = (Consumer) vaccine.getInjected(Consumer.class).orElseThrow();
+        final var second = (Consumer) vaccine.getInjected(Consumer.class).orElseThrow();
+
+        assertSame(first.clock(), second.clock());
+        assertEquals(1, getFactory().clocks);
+    }
+
+    @Test
+    void testFactoryProviderIsCalledForEveryInjectionPoint() {
+        final var first = (Consumer) vaccine.getInjected(Consumer.class).orElseThrow();
+        final var second = (Consumer) vaccine.getInjected(Consumer.class).orElseThrow();
+
+        assertNotSame(first.connection(), second.connection());
+        assertEquals(2, getFactory().connections);
+    }
+
+    @Test
+    void testBoundedProviderKeepsResultsPerPropertyValue() throws Exception {
+        final var first = (Consumer) vaccine.getInjected(Consumer.class).orElseThrow();
+        final var second = (Consumer) vaccine.getInjected(Consumer.class).orElseThrow();
+        assertSame(first.endpoint(), second.endpoint());
+
+        source.setProperty("endpoint.url", "https://second.example");
+        properties.reload();
+        final var changed = (Consumer) vaccine.getInjected(Consumer.class).orElseThrow();
+        assertEquals("https://second.example", changed.endpoint().url());
+
+        // The cache holds a single result, so the first endpoint was evicted
+        source.setProperty("endpoint.url", "https://first.example");
+        properties.reload();
+        final var restored = (Consumer) vaccine.getInjected(Consumer.class).orElseThrow();
+        assertEquals("https://first.example", restored.endpoint().url());
+        assertNotSame(first.endpoint(), restored.endpoint());
+        assertEquals(3, getFactory().endpoints);
+    }
+
+    @Test
+    void testProvidersOfTheSameTypeAreInvokedOnTheirOwnInstance() {
+        final var channels = ((ChannelConsumer) vaccine.getInjected(ChannelConsumer.class).orElseThrow()).channels();
+
+        assertEquals(2, channels.size());
+        assertSame(vaccine.getInjected(Factory.class).orElseThrow(), channels.get(0).owner());
+        assertSame(vaccine.getInjected(SecondFactory.class).orElseThrow(), channels.get(1).owner());
+    }
+
+    private Factory getFactory() {
+        return (Factory) vaccine.getInjected(Factory.class).orElseThrow();
+    }
+
+    public static class Clock {
+    }
+
+    public static class Connection {
+    }
+
+    public record Endpoint(String url) {
+    }
+
+    public record Channel(Object owner) {
+    }
+
+    @Component
+    public record ChannelConsumer(List<Channel> channels) {
+    }
+
+    @Component
+    @Scope(Scope.PROTOTYPE)
+    public record Consumer(Clock clock, Connection connection, Endpoint endpoint) {
+    }
+
+    @Component
+    public static class Factory {
+        private int clocks;
+        private int connections;
+        private int endpoints;
+
+        @Provided
+        public Clock clock() {
+            clocks++;
+            return new Clock();
+        }
+
+        @Provided(caching = Provided.Caching.FACTORY)
+        public Connection connection() {
+            connections++;
+            return new Connection();
+        }
+
+        @Provided(caching = Provided.Caching.BOUNDED, cacheSize = 1)
+        public Endpoint endpoint(@Property("endpoint.url") String url) {
+            endpoints++;
+            return new Endpoint(url);
+        }
+
+        @Provided(caching = Provided.Caching.FACTORY)
+        public Channel channel() {
+            return new Channel(this);
+        }
+    }
+
+    @Component
+    public static class SecondFactory {
+        @Provided(caching = Provided.Caching.FACTORY)
+        public Channel channel() {
+            return new Channel(this);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ooo.sansk.vaccine.registry;
+
+import ooo.sansk.vaccine.model.ComponentDependency;
+import ooo.sansk.vaccine.model.ComponentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentRegistryTest {
+    private ComponentRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ComponentRegistry(List.of(
+                new ComponentDependency(FirstProvider.class, new Class[0], new Class[]{Provided.class}),
+                new ComponentDependency(SecondProvider.class, new Class[0], new Class[]{Provided.class}),
+                new ComponentDependency(ServiceImplementation.class, new Class[0], new Class[0])
+        ));
+    }
+
+    @Test
+    void testProviderLookupReturnsFirstDeclaringComponent() {
+        assertEquals(FirstProvider.class, registry.getProvider(Provided.class).orElseThrow().getType());
+        assertTrue(registry.getProvider(ServiceImplementation.class).isEmpty());
+    }
+
+    @Test
+    void testInstanceLookupIsExact() {
+        final var implementation = new ServiceImplementation();
+        registry.register(implementation);
+
+        assertTrue(registry.isInstantiated(ServiceImplementation.class));
+        assertSame(implementation, registry.getInstance(ServiceImplementation.class).orElseThrow());
+        assertFalse(registry.getInstance(Service.class).isPresent());
+        assertFalse(registry.getInstance(BaseService.class).isPresent());
+    }
+
+    @Test
+    void testImplementationLookupCoversSupertypesAndInterfaces() {
+        assertEquals(ServiceImplementation.class, registry.getImplementation(Service.class).orElseThrow().getType());
+        assertEquals(ServiceImplementation.class, registry.getImplementation(ParentService.class).orElseThrow().getType());
+        assertEquals(ServiceImplementation.class, registry.getImplementation(BaseService.class).orElseThrow().getType());
+        assertTrue(registry.getImplementation(Provided.class).isEmpty());
+    }
+
+    @Test
+    void testInstancesAreAnUnmodifiableSnapshot() {
+        final var provider = new FirstProvider();
+        registry.register(provider);
+        final var snapshot = registry.getInstances();
+        registry.register(new ServiceImplementation());
+
+        assertEquals(List.of(provider), snapshot);
+        assertEquals(2, registry.getInstances().size());
+        assertThrows(UnsupportedOperationException.class, () -> registry.getInstances().clear());
+    }
+
+    @Test
+    void testDuplicateRegistrationIsIgnored() {
+        registry.register(new ServiceImplementation());
+        registry.register(new ServiceImplementation());
+
+        assertEquals(1, registry.getInstances().size());
+    }
+
+    @Test
+    void testComponentsHaveDenseIdsInRegistrationOrder() {
+        assertEquals(0, registry.getId(FirstProvider.class));
+        assertEquals(2, registry.getId(ServiceImplementation.class));
+        assertEquals(-1, registry.getId(Service.class));
+        assertSame(registry.getDependencies().get(1), registry.getDependency(1));
+    }
+
+    @Test
+    void testInstancesOfComponentsAndOtherTypesAreSeparated() {
+        final var provided = new Provided();
+        registry.register(provided);
+        registry.register(new SecondProvider());
+
+        assertSame(provided, registry.getInstance(Provided.class).orElseThrow());
+        assertTrue(registry.isInstantiated(SecondProvider.class));
+        assertFalse(registry.isInstantiated(FirstProvider.class));
+        assertEquals(List.of(registry.getInstance(SecondProvider.class).orElseThrow(), provided), registry.getInstances());
+    }
+
+    public interface ParentService {
+    }
+
+    public interface Service extends ParentService {
+    }
+
+    public abstract static class BaseService {
+    }
+
+    public static class ServiceImplementation extends BaseService implements Service {
+    }
+
+    public static class FirstProvider {
+    }
+
+    public static class SecondProvider {
+    }
+
+    public static class Provided {
+    }
+}
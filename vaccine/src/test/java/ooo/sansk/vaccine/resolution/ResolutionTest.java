@@ -0,0 +1,107 @@
+package ooo.sansk.vaccine.resolution;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.exception.CircularDependencyException;
+import ooo.sansk.vaccine.exception.UnknownDependencyException;
+import ooo.sansk.vaccine.listener.ComponentCreation;
+import ooo.sansk.vaccine.listener.InjectionListener;
+import ooo.sansk.vaccine.model.ComponentDependency;
+import ooo.sansk.vaccine.model.ComponentRegistry;
+import ooo.sansk.vaccine.model.DependencyGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResolutionTest {
+    private static final Properties PROPERTIES = new Properties();
+
+    @Test
+    void testSiblingsDoNotSeeEachOtherAsParents() {
+        final var depths = new ConcurrentHashMap<Class<?>, Integer>();
+        final var vaccine = new Vaccine();
+        vaccine.addInjectionListener(new InjectionListener() {
+            @Override
+            public void onComponentCreated(ComponentCreation creation) {
+                depths.put(creation.type(), creation.depth());
+            }
+        });
+
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.resolution");
+
+        assertEquals(Map.of(Application.class, 0, FirstBranch.class, 1, SecondBranch.class, 1, Leaf.class, 2), depths);
+    }
+
+    @Test
+    void testReportsAllProblemsAtOnce() {
+        final var registry = new ComponentRegistry(List.of(
+                dependency(CycleA.class, CycleB.class),
+                dependency(CycleB.class, CycleA.class),
+                dependency(Unknown.class, Missing.class),
+                dependency(SelfCycle.class, SelfCycle.class),
+                dependency(Application.class, FirstBranch.class, SecondBranch.class),
+                dependency(FirstBranch.class, Leaf.class),
+                dependency(SecondBranch.class, Leaf.class),
+                dependency(Leaf.class)
+        ));
+
+        final var exception = assertThrows(UnknownDependencyException.class, () -> DependencyGraph.of(registry));
+
+        final var suppressed = exception.getSuppressed();
+        assertEquals(2, suppressed.length, Arrays.toString(suppressed));
+        assertInstanceOf(CircularDependencyException.class, suppressed[0]);
+        assertEquals("Circular dependency detected while injecting Components: (" + CycleA.class.getName() + " -> " + CycleB.class.getName() + " -> " + CycleA.class.getName() + ")", suppressed[0].getMessage());
+        assertEquals("Circular dependency detected while injecting Components: (" + SelfCycle.class.getName() + " -> " + SelfCycle.class.getName() + ")", suppressed[1].getMessage());
+    }
+
+    private static ComponentDependency dependency(Class<?> type, Class<?>... dependencies) {
+        return new ComponentDependency(type, dependencies, new Class[0]);
+    }
+
+    @Component
+    public static class Application {
+        public Application(FirstBranch firstBranch, SecondBranch secondBranch) {
+        }
+    }
+
+    @Component
+    public static class FirstBranch {
+        public FirstBranch(Leaf leaf) {
+        }
+    }
+
+    @Component
+    public static class SecondBranch {
+        public SecondBranch() {
+        }
+    }
+
+    @Component
+    public static class Leaf {
+        public Leaf() {
+        }
+    }
+
+    public static class CycleA {
+    }
+
+    public static class CycleB {
+    }
+
+    public static class SelfCycle {
+    }
+
+    public static class Unknown {
+    }
+
+    private interface Missing {
+    }
+}
@@ -0,0 +1,96 @@
+package ooo.sansk.vaccine.scancache;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Property;
+import ooo.sansk.vaccine.annotation.Provided;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanCacheTest {
+    private static final String PACKAGE = "ooo.sansk.vaccine.scancache";
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void testCachedScanInjectsTheSameComponents() throws Exception {
+        final var properties = new Properties();
+        properties.setProperty("size", "4");
+
+        final var firstVaccine = new Vaccine();
+        firstVaccine.setScanCacheDirectory(cacheDirectory);
+        firstVaccine.inject(properties, PACKAGE);
+
+        final var cacheFile = cacheDirectory.resolve(PACKAGE + ".scan");
+        assertTrue(Files.exists(cacheFile));
+        final var lastModified = Files.getLastModifiedTime(cacheFile);
+
+        final var secondVaccine = new Vaccine();
+        secondVaccine.setScanCacheDirectory(cacheDirectory);
+        secondVaccine.inject(properties, PACKAGE);
+
+        assertEquals(firstVaccine.getCandidates().size(), secondVaccine.getCandidates().size());
+        final var consumer = (Consumer) secondVaccine.getInjected(Consumer.class).orElseThrow();
+        assertSame(secondVaccine.getInjected(Producer.class).orElseThrow(), consumer.producer());
+        assertEquals("4", consumer.size());
+        assertEquals(4, consumer.sized().length);
+        assertEquals(lastModified, Files.getLastModifiedTime(cacheFile));
+    }
+
+    @Test
+    void testCachedRootIsNotScannedAgain() {
+        final var firstVaccine = new Vaccine();
+        firstVaccine.setScanCacheDirectory(cacheDirectory);
+        firstVaccine.inject(new Properties(), PACKAGE);
+
+        final var classLoader = new RecordingClassLoader(getClass().getClassLoader());
+        final var secondVaccine = new Vaccine();
+        secondVaccine.setScanCacheDirectory(cacheDirectory);
+        secondVaccine.inject(new Properties(), PACKAGE, classLoader);
+
+        assertTrue(classLoader.requestedClasses.contains(Consumer.class.getName()));
+        // A scan loads every class of the package, the cache only the components and their dependencies
+        assertFalse(classLoader.requestedClasses.contains(Helper.class.getName()));
+    }
+
+    @Component
+    public record Consumer(Producer producer, int[] sized, @Property("size") String size) {
+    }
+
+    @Component
+    public static class Producer {
+        @Provided
+        public int[] sized() {
+            return new int[4];
+        }
+    }
+
+    public static class Helper {
+    }
+
+    private static final class RecordingClassLoader extends ClassLoader {
+        private final Set<String> requestedClasses = ConcurrentHashMap.newKeySet();
+
+        private RecordingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            requestedClasses.add(name);
+            return super.loadClass(name, resolve);
+        }
+    }
+}
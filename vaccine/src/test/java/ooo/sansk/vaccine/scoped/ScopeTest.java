@@ -0,0 +1,171 @@
+package ooo.sansk.vaccine.scoped;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.AfterCreate;
+import ooo.sansk.vaccine.annotation.BeforeDestroy;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Pooled;
+import ooo.sansk.vaccine.annotation.Scope;
+import ooo.sansk.vaccine.exception.DependencyInstantiationException;
+import ooo.sansk.vaccine.scope.ContextScope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScopeTest {
+    private static final Properties PROPERTIES = new Properties();
+    private static final AtomicInteger BUFFER_WARM_UPS = new AtomicInteger();
+    private static final AtomicInteger THREAD_COMPONENTS_DESTROYED = new AtomicInteger();
+
+    private final ContextScope requestScope = new ContextScope();
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        BUFFER_WARM_UPS.set(0);
+        THREAD_COMPONENTS_DESTROYED.set(0);
+        vaccine = new Vaccine();
+        vaccine.registerScope("request", requestScope);
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.scoped");
+    }
+
+    @Test
+    void testPrototypeIsCreatedForEveryRequest() {
+        final var first = vaccine.getInjected(PrototypeComponent.class).orElseThrow();
+
+        assertNotSame(first, vaccine.getInjected(PrototypeComponent.class).orElseThrow());
+        assertNotSame(first, ((SingletonComponent) vaccine.getInjected(SingletonComponent.class).orElseThrow()).prototypeComponent);
+        assertFalse(vaccine.getCandidates().stream().anyMatch(PrototypeComponent.class::isInstance));
+    }
+
+    @Test
+    void testThreadScopeKeepsOneInstancePerThread() throws Exception {
+        final var instance = vaccine.getInjected(ThreadComponent.class).orElseThrow();
+
+        assertSame(instance, vaccine.getInjected(ThreadComponent.class).orElseThrow());
+        assertNotSame(instance, CompletableFuture.supplyAsync(() -> vaccine.getInjected(ThreadComponent.class).orElseThrow()).get());
+    }
+
+    @Test
+    void testThreadScopedInstancesAreDestroyedAndRecreatedAfterClose() {
+        final var instance = vaccine.getInjected(ThreadComponent.class).orElseThrow();
+
+        vaccine.close();
+        assertEquals(1, THREAD_COMPONENTS_DESTROYED.get());
+
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.scoped");
+        assertNotSame(instance, vaccine.getInjected(ThreadComponent.class).orElseThrow());
+    }
+
+    @Test
+    void testActiveContextDropsInstancesOfPreviousInjection() {
+        try (final var context = requestScope.enter()) {
+            final var first = vaccine.getInjected(RequestComponent.class).orElseThrow();
+
+            vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.scoped");
+            assertNotSame(first, vaccine.getInjected(RequestComponent.class).orElseThrow());
+        }
+    }
+
+    @Test
+    void testContextScopeKeepsOneInstancePerContext() {
+        final Object first;
+        try (final var context = requestScope.enter()) {
+            first = vaccine.getInjected(RequestComponent.class).orElseThrow();
+            assertSame(first, vaccine.getInjected(RequestComponent.class).orElseThrow());
+        }
+        try (final var context = requestScope.enter()) {
+            assertNotSame(first, vaccine.getInjected(RequestComponent.class).orElseThrow());
+        }
+        assertThrows(IllegalStateException.class, () -> vaccine.getInjected(RequestComponent.class));
+    }
+
+    @Test
+    void testPoolReusesReturnedInstances() throws Exception {
+        final var instances = new HashSet<>();
+        try (final var lease = vaccine.borrow(PooledBuffer.class); final var secondLease = vaccine.borrow(PooledBuffer.class)) {
+            assertNotSame(lease.get(), secondLease.get());
+            instances.add(lease.get());
+            instances.add(secondLease.get());
+        }
+        try (final var lease = vaccine.borrow(PooledBuffer.class)) {
+            assertTrue(instances.contains(lease.get()));
+        }
+        assertEquals(2, BUFFER_WARM_UPS.get());
+    }
+
+    @Test
+    void testPoolBlocksWhenExhausted() throws Exception {
+        final var first = vaccine.borrow(PooledBuffer.class);
+        final var second = vaccine.borrow(PooledBuffer.class);
+        final var waiting = CompletableFuture.supplyAsync(() -> {
+            try (final var lease = vaccine.borrow(PooledBuffer.class)) {
+                return lease.get();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThrows(TimeoutException.class, () -> waiting.get(50, TimeUnit.MILLISECONDS));
+        final var returned = first.get();
+        first.close();
+        assertSame(returned, waiting.get(1, TimeUnit.SECONDS));
+        second.close();
+    }
+
+    @Test
+    void testPooledComponentCanNotBeInjected() {
+        assertThrows(DependencyInstantiationException.class, () -> vaccine.getInjected(PooledBuffer.class));
+        assertThrows(IllegalArgumentException.class, () -> vaccine.borrow(PrototypeComponent.class));
+    }
+
+    @Component
+    @Scope(Scope.PROTOTYPE)
+    public static class PrototypeComponent {
+    }
+
+    @Component
+    @Scope(Scope.THREAD)
+    public static class ThreadComponent {
+        @BeforeDestroy
+        public void destroy() {
+            THREAD_COMPONENTS_DESTROYED.incrementAndGet();
+        }
+    }
+
+    @Component
+    @Scope("request")
+    public static class RequestComponent {
+    }
+
+    @Component
+    public static class SingletonComponent {
+        private final PrototypeComponent prototypeComponent;
+
+        public SingletonComponent(PrototypeComponent prototypeComponent) {
+            this.prototypeComponent = prototypeComponent;
+        }
+    }
+
+    @Component
+    @Pooled(size = 2)
+    public static class PooledBuffer {
+        @AfterCreate
+        public void warmUp() {
+            BUFFER_WARM_UPS.incrementAndGet();
+        }
+    }
+}
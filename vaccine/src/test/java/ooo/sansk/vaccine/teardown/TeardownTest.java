@@ -0,0 +1,190 @@
+package ooo.sansk.vaccine.teardown;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.BeforeDestroy;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Pooled;
+import ooo.sansk.vaccine.annotation.Scope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeardownTest {
+    private static final Properties PROPERTIES = new Properties();
+    private static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+    private static volatile CountDownLatch independentBranches;
+    private static volatile CountDownLatch hangingRelease;
+    private static volatile boolean concurrentBranches;
+
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+        DESTROYED.clear();
+        independentBranches = new CountDownLatch(2);
+        hangingRelease = new CountDownLatch(0);
+        concurrentBranches = false;
+    }
+
+    @Test
+    void testDependentsAreDestroyedFirst() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.teardown");
+        vaccine.close();
+
+        assertTrue(DESTROYED.indexOf("api") < DESTROYED.indexOf("repository"), DESTROYED.toString());
+        assertTrue(DESTROYED.indexOf("repository") < DESTROYED.indexOf("database"), DESTROYED.toString());
+        assertTrue(DESTROYED.indexOf("hanging") < DESTROYED.indexOf("database"), DESTROYED.toString());
+        assertTrue(vaccine.getCandidates().isEmpty());
+    }
+
+    @Test
+    void testScopedInstancesAreDestroyedBetweenTheirDependentsAndDependencies() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.teardown");
+        vaccine.close();
+
+        assertTrue(DESTROYED.indexOf("audit") < DESTROYED.indexOf("session"), DESTROYED.toString());
+        assertTrue(DESTROYED.indexOf("session") < DESTROYED.indexOf("database"), DESTROYED.toString());
+    }
+
+    @Test
+    void testIndependentComponentsAreDestroyedConcurrently() {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.teardown");
+        vaccine.close();
+
+        assertTrue(concurrentBranches);
+    }
+
+    @Test
+    void testSlowComponentDoesNotBlockItsDependencies() {
+        hangingRelease = new CountDownLatch(1);
+        vaccine.setDestroyTimeout(Duration.ofMillis(100));
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.teardown");
+
+        final var start = System.nanoTime();
+        vaccine.close();
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        hangingRelease.countDown();
+
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(5)) < 0, elapsed.toString());
+        assertTrue(DESTROYED.contains("database"));
+    }
+
+    @Test
+    void testIdlePooledInstancesAreDestroyed() throws InterruptedException {
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.teardown");
+        try (final var first = vaccine.borrow(PooledConnection.class); final var second = vaccine.borrow(PooledConnection.class)) {
+            first.get();
+            second.get();
+        }
+        vaccine.close();
+
+        assertEquals(2, DESTROYED.stream().filter("connection"::equals).count());
+    }
+
+    @Component
+    public static class Database {
+        @BeforeDestroy
+        public void close() {
+            DESTROYED.add("database");
+        }
+    }
+
+    @Component
+    public static class Repository {
+        public Repository(Database database) {
+        }
+
+        @BeforeDestroy
+        public void close() {
+            DESTROYED.add("repository");
+        }
+    }
+
+    @Component
+    public static class Api {
+        public Api(Repository repository) {
+        }
+
+        @BeforeDestroy
+        public void close() {
+            DESTROYED.add("api");
+        }
+    }
+
+    @Component
+    public static class Hanging {
+        public Hanging(Database database) {
+        }
+
+        @BeforeDestroy
+        public void close() throws InterruptedException {
+            hangingRelease.await();
+            DESTROYED.add("hanging");
+        }
+    }
+
+    @Component
+    @Scope(Scope.THREAD)
+    public static class Session {
+        public Session(Database database) {
+        }
+
+        @BeforeDestroy
+        public void close() {
+            DESTROYED.add("session");
+        }
+    }
+
+    @Component
+    public static class SessionAudit {
+        public SessionAudit(Session session) {
+        }
+
+        @BeforeDestroy
+        public void close() {
+            DESTROYED.add("audit");
+        }
+    }
+
+    @Component
+    public static class LeftBranch {
+        @BeforeDestroy
+        public void close() throws InterruptedException {
+            awaitOtherBranch();
+        }
+    }
+
+    @Component
+    public static class RightBranch {
+        @BeforeDestroy
+        public void close() throws InterruptedException {
+            awaitOtherBranch();
+        }
+    }
+
+    @Pooled(size = 2)
+    @Component
+    public static class PooledConnection {
+        @BeforeDestroy
+        public void close() {
+            DESTROYED.add("connection");
+        }
+    }
+
+    private static void awaitOtherBranch() throws InterruptedException {
+        independentBranches.countDown();
+        if (independentBranches.await(5, TimeUnit.SECONDS)) {
+            concurrentBranches = true;
+        }
+    }
+}
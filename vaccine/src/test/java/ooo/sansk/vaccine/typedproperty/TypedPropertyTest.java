@@ -0,0 +1,154 @@
+package ooo.sansk.vaccine.typedproperty;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Property;
+import ooo.sansk.vaccine.convert.PropertyConverters;
+import ooo.sansk.vaccine.exception.MissingPropertyException;
+import ooo.sansk.vaccine.exception.PropertyConversionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypedPropertyTest {
+    private Vaccine vaccine;
+    private Properties properties;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = new Vaccine();
+        properties = new Properties();
+        properties.setProperty("server.port", "8080");
+        properties.setProperty("server.max-size", "1048576");
+        properties.setProperty("server.secure", "true");
+        properties.setProperty("server.timeout", "1500ms");
+        properties.setProperty("server.unit", "seconds");
+        properties.setProperty("server.weights", "1, 2, 3");
+        properties.setProperty("server.address", "localhost:80");
+        properties.setProperty("client.timeout", "PT1.5S");
+    }
+
+    @Test
+    void testConvertsToParameterTypes() {
+        vaccine.registerPropertyConverter(Address.class, Address::parse);
+        vaccine.inject(properties, "ooo.sansk.vaccine.typedproperty");
+
+        final var server = (Server) vaccine.getInjected(Server.class).orElseThrow();
+        assertEquals(8080, server.port());
+        assertEquals(1048576L, server.maxSize());
+        assertTrue(server.secure());
+        assertEquals(Duration.ofMillis(1500), server.timeout());
+        assertEquals(TimeUnit.SECONDS, server.unit());
+        assertEquals(List.of(1, 2, 3), server.weights());
+        assertEquals(new Address("localhost", 80), server.address());
+    }
+
+    @Test
+    void testDefaultsAndOptionalProperties() {
+        vaccine.registerPropertyConverter(Address.class, Address::parse);
+        vaccine.inject(properties, "ooo.sansk.vaccine.typedproperty");
+
+        final var client = (Client) vaccine.getInjected(Client.class).orElseThrow();
+        assertEquals(3, client.retries());
+        assertFalse(client.verbose());
+        assertNull(client.name());
+    }
+
+    @Test
+    void testEqualValuesAreConvertedOnce() {
+        vaccine.registerPropertyConverter(Address.class, Address::parse);
+        vaccine.inject(properties, "ooo.sansk.vaccine.typedproperty");
+
+        final var server = (Server) vaccine.getInjected(Server.class).orElseThrow();
+        final var client = (Client) vaccine.getInjected(Client.class).orElseThrow();
+        assertSame(server.timeout(), client.timeout());
+    }
+
+    @Test
+    void testValuesOfCustomConvertersAreNotShared() {
+        final var converters = new PropertyConverters();
+        converters.register(StringBuilder.class, StringBuilder::new);
+
+        assertNotSame(converters.convert(StringBuilder.class, "buffer"), converters.convert(StringBuilder.class, "buffer"));
+    }
+
+    @Test
+    void testMissingRequiredProperty() {
+        vaccine.registerPropertyConverter(Address.class, Address::parse);
+        properties.remove("server.address");
+
+        assertThrows(MissingPropertyException.class, () -> vaccine.inject(properties, "ooo.sansk.vaccine.typedproperty"));
+    }
+
+    @Test
+    void testMissingPrimitiveProperty() {
+        vaccine.registerPropertyConverter(Address.class, Address::parse);
+        properties.remove("server.port");
+
+        assertThrows(MissingPropertyException.class, () -> vaccine.inject(properties, "ooo.sansk.vaccine.typedproperty"));
+    }
+
+    @Test
+    void testInvalidValue() {
+        vaccine.registerPropertyConverter(Address.class, Address::parse);
+        properties.setProperty("server.secure", "yes");
+
+        assertThrows(PropertyConversionException.class, () -> vaccine.inject(properties, "ooo.sansk.vaccine.typedproperty"));
+    }
+
+    @Test
+    void testUnknownTypeWithoutConverter() {
+        assertThrows(PropertyConversionException.class, () -> vaccine.inject(properties, "ooo.sansk.vaccine.typedproperty"));
+    }
+
+    public record Address(String host, int port) {
+        static Address parse(String value) {
+            final var separator = value.lastIndexOf(':');
+            return new Address(value.substring(0, separator), Integer.parseInt(value.substring(separator + 1)));
+        }
+    }
+
+    @Component
+    public record Server(int port, long maxSize, boolean secure, Duration timeout, TimeUnit unit, List<Integer> weights, Address address) {
+        public Server(@Property("server.port") int port,
+                      @Property("server.max-size") long maxSize,
+                      @Property("server.secure") boolean secure,
+                      @Property("server.timeout") Duration timeout,
+                      @Property("server.unit") TimeUnit unit,
+                      @Property("server.weights") List<Integer> weights,
+                      @Property(value = "server.address", required = true) Address address) {
+            this.port = port;
+            this.maxSize = maxSize;
+            this.secure = secure;
+            this.timeout = timeout;
+            this.unit = unit;
+            this.weights = weights;
+            this.address = address;
+        }
+    }
+
+    @Component
+    public record Client(int retries, boolean verbose, String name, Duration timeout) {
+        public Client(@Property(value = "client.retries", defaultValue = "3") int retries,
+                      @Property(value = "client.verbose", defaultValue = "false") boolean verbose,
+                      @Property("client.name") String name,
+                      @Property("client.timeout") Duration timeout) {
+            this.retries = retries;
+            this.verbose = verbose;
+            this.name = name;
+            this.timeout = timeout;
+        }
+    }
+}
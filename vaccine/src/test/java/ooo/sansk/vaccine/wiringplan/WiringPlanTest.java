@@ -0,0 +1,145 @@
+package ooo.sansk.vaccine.wiringplan;
+
+import ooo.sansk.vaccine.Vaccine;
+import ooo.sansk.vaccine.annotation.Component;
+import ooo.sansk.vaccine.annotation.Property;
+import ooo.sansk.vaccine.annotation.Provided;
+import ooo.sansk.vaccine.exception.DependencyInstantiationException;
+import ooo.sansk.vaccine.listener.InjectionListener;
+import ooo.sansk.vaccine.listener.InjectionPhase;
+import ooo.sansk.vaccine.model.ArgumentBinding;
+import ooo.sansk.vaccine.model.WiringPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WiringPlanTest {
+    private static final Properties PROPERTIES = new Properties();
+
+    private WiringPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        PROPERTIES.setProperty("greeting", "hello");
+        final var vaccine = new Vaccine();
+        vaccine.inject(PROPERTIES, "ooo.sansk.vaccine.wiringplan");
+        plan = vaccine.createWiringPlan();
+    }
+
+    @Test
+    void testPlanIsInConstructionOrder() {
+        final var types = plan.getEntries().stream().map(WiringPlan.Entry::type).toList();
+
+        assertEquals(3, types.size());
+        assertEquals(Service.class, types.get(2));
+        assertEquals(List.of(
+                ArgumentBinding.component(Repository.class, Repository.class),
+                ArgumentBinding.provided(Connection.class, Repository.class),
+                ArgumentBinding.property("greeting", String.class)
+        ), plan.getEntries().get(2).arguments());
+    }
+
+    @Test
+    void testRestoredPlanWiresWithoutScanning() throws Exception {
+        final var output = new ByteArrayOutputStream();
+        plan.writeTo(output);
+        final var restoredPlan = WiringPlan.readFrom(new ByteArrayInputStream(output.toByteArray()), getClass().getClassLoader());
+        assertEquals(plan.getEntries(), restoredPlan.getEntries());
+
+        final var phases = new ArrayList<InjectionPhase>();
+        final var vaccine = new Vaccine();
+        vaccine.addInjectionListener(new InjectionListener() {
+            @Override
+            public void onPhaseCompleted(InjectionPhase phase, Duration duration) {
+                phases.add(phase);
+            }
+        });
+        vaccine.inject(PROPERTIES, restoredPlan);
+
+        final var service = (Service) vaccine.getInjected(Service.class).orElseThrow();
+        assertSame(vaccine.getInjected(Repository.class).orElseThrow(), service.repository);
+        assertSame(service.repository.connection, service.connection);
+        assertEquals("hello", service.greeting);
+        assertEquals(List.of(InjectionPhase.METADATA, InjectionPhase.INSTANTIATION), phases);
+    }
+
+    @Test
+    void testStalePlanIsRejected() {
+        final var entries = new ArrayList<>(plan.getEntries());
+        final var service = entries.remove(2);
+        entries.add(new WiringPlan.Entry(service.type(), service.dependencies(), service.providedClasses(), service.arguments().subList(0, 1)));
+
+        final var vaccine = new Vaccine();
+        final var stalePlan = new WiringPlan(entries);
+        assertThrows(DependencyInstantiationException.class, () -> vaccine.inject(PROPERTIES, stalePlan));
+    }
+
+    @Test
+    void testPlanIsInjectedInParallelWithoutResolvingDependencies() {
+        final var entries = new ArrayList<>(plan.getEntries());
+        final var service = entries.remove(2);
+        // Metadata that can not be resolved, only the planned arguments are used
+        final var dependencies = new ArrayList<>(service.dependencies());
+        dependencies.add(Connection[].class);
+        entries.add(new WiringPlan.Entry(service.type(), dependencies, service.providedClasses(), service.arguments()));
+
+        final var executor = Executors.newFixedThreadPool(2);
+        try {
+            final var vaccine = new Vaccine();
+            vaccine.setExecutor(executor);
+            vaccine.inject(PROPERTIES, new WiringPlan(entries));
+
+            final var injectedService = (Service) vaccine.getInjected(Service.class).orElseThrow();
+            assertSame(vaccine.getInjected(Repository.class).orElseThrow(), injectedService.repository);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidPlanIsRejected() {
+        assertThrows(IOException.class, () -> WiringPlan.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}), getClass().getClassLoader()));
+    }
+
+    public static class Connection {
+    }
+
+    @Component
+    public static class Repository {
+        private final Connection connection = new Connection();
+
+        @Provided
+        public Connection connection() {
+            return connection;
+        }
+    }
+
+    @Component
+    public static class Service {
+        private final Repository repository;
+        private final Connection connection;
+        private final String greeting;
+
+        public Service(Repository repository, Connection connection, @Property("greeting") String greeting) {
+            this.repository = repository;
+            this.connection = connection;
+            this.greeting = greeting;
+        }
+    }
+
+    @Component
+    public static class Unrelated {
+    }
+}